@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+#
+# Builds an AppCDS (class-data-sharing) archive for book-service.
+#
+#   scripts/build-cds-archive.sh <spring-boot-jar> <output-dir>
+#
+# CDS on JDK 11 only archives classes loaded from plain jar files on the class path, so the
+# Spring Boot jar is unpacked into <output-dir>/app.jar + <output-dir>/lib/*.jar. A training
+# run records the loaded classes (startup plus one real request), then the archive is dumped.
+# Start the service from <output-dir> with:
+#
+#   java -XX:SharedArchiveFile=app.jsa @classpath.arg com.bookstore.bookmanagement.BookManagementApplication
+#
+# The archive is only valid for the JVM that created it, which is why the Dockerfile runs this
+# script inside the image instead of copying the one produced by `mvn -Pcds package`.
+
+set -euo pipefail
+
+JAR="$(readlink -f "$1")"
+OUT="$2"
+PORT="${CDS_TRAINING_PORT:-18080}"
+MAIN_CLASS=com.bookstore.bookmanagement.BookManagementApplication
+
+rm -rf "$OUT"
+mkdir -p "$OUT/unpacked" "$OUT/lib"
+cd "$OUT"
+
+(cd unpacked && jar -xf "$JAR")
+jar -cf app.jar -C unpacked/BOOT-INF/classes .
+mv unpacked/BOOT-INF/lib/*.jar lib/
+rm -rf unpacked
+
+CLASSPATH_ENTRIES="app.jar"
+for lib in $(ls lib | sort); do
+    CLASSPATH_ENTRIES="$CLASSPATH_ENTRIES:lib/$lib"
+done
+echo "-cp $CLASSPATH_ENTRIES" > classpath.arg
+
+# the journal and replenishment files of the training run must not end up next to the archive,
+# which the Dockerfile copies into the image as a whole
+TRAINING_DATA="$(mktemp -d)"
+trap 'rm -rf "$TRAINING_DATA"' EXIT
+
+echo "Training run on port $PORT"
+java -XX:DumpLoadedClassList=classes.lst @classpath.arg "$MAIN_CLASS" \
+    --spring.profiles.active=prod --server.port="$PORT" --eureka.client.enabled=false \
+    --bookmanagement.journal.directory="$TRAINING_DATA/journal" \
+    --bookmanagement.replenishment.file="$TRAINING_DATA/replenishment/suggestions.jsonl" &
+APP_PID=$!
+
+for _ in $(seq 1 120); do
+    if curl -sf "http://localhost:$PORT/actuator/health/readiness" > /dev/null; then
+        break
+    fi
+    sleep 1
+done
+curl -sf "http://localhost:$PORT/books" > /dev/null
+kill -TERM "$APP_PID"
+wait "$APP_PID" || true
+
+java -Xshare:dump -XX:SharedClassListFile=classes.lst -XX:SharedArchiveFile=app.jsa @classpath.arg
+echo "CDS archive written to $OUT/app.jsa"
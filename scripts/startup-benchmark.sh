@@ -0,0 +1,51 @@
+#!/usr/bin/env bash
+#
+# Measures book-service time-to-first-request: wall-clock time from launching the JVM until
+# GET /books returns 200. Runs RUNS times and prints every sample plus min/median/max.
+#
+#   scripts/startup-benchmark.sh jar <spring-boot-jar>   # plain `java -jar`
+#   scripts/startup-benchmark.sh cds <cds-dir>           # layout from build-cds-archive.sh
+#
+# Environment: RUNS (default 10), PORT (default 18081), PROFILE (default prod),
+# JAVA_OPTS (extra JVM flags). Eureka is disabled so the numbers do not depend on the network.
+
+set -euo pipefail
+
+MODE="$1"
+TARGET="$(readlink -f "$2")"
+RUNS="${RUNS:-10}"
+PORT="${PORT:-18081}"
+PROFILE="${PROFILE:-prod}"
+APP_ARGS="--spring.profiles.active=$PROFILE --server.port=$PORT --eureka.client.enabled=false"
+
+samples=()
+for run in $(seq 1 "$RUNS"); do
+    start=$(date +%s%N)
+    if [ "$MODE" = "cds" ]; then
+        (cd "$TARGET" && exec java ${JAVA_OPTS:-} -XX:SharedArchiveFile=app.jsa -Xshare:auto @classpath.arg \
+            com.bookstore.bookmanagement.BookManagementApplication $APP_ARGS) > /dev/null 2>&1 &
+    else
+        java ${JAVA_OPTS:-} -jar "$TARGET" $APP_ARGS > /dev/null 2>&1 &
+    fi
+    APP_PID=$!
+
+    until curl -sf "http://localhost:$PORT/books" > /dev/null; do
+        if ! kill -0 "$APP_PID" 2> /dev/null; then
+            echo "run $run: application exited before serving a request" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    end=$(date +%s%N)
+
+    kill -TERM "$APP_PID"
+    wait "$APP_PID" || true
+
+    elapsed=$(( (end - start) / 1000000 ))
+    samples+=("$elapsed")
+    echo "run $run: ${elapsed} ms"
+done
+
+sorted=($(printf '%s\n' "${samples[@]}" | sort -n))
+echo "time-to-first-request ($MODE, $RUNS runs): min=${sorted[0]} ms" \
+    "median=${sorted[$(( RUNS / 2 ))]} ms max=${sorted[$(( RUNS - 1 ))]} ms"
@@ -0,0 +1,178 @@
+package com.bookstore.bookmanagement.cache;
+
+import com.bookstore.bookmanagement.entities.Book;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of Book JSON, encoded once per book state and written to responses as raw bytes.
+ * <p>
+ * Every entry keeps a snapshot of the book it was encoded from and is only used for a book
+ * that is still equal to that snapshot, so a stale entry can never be served. The mutation
+ * paths in {@code BookService} evict entries so memory is not held for outdated versions.
+ * Beyond {@code maxEntries} the least recently used book is dropped.
+ */
+@Component
+public class BookResponseCache {
+
+    private static final byte[] ARRAY_START = {'['};
+    private static final byte[] ARRAY_END = {']'};
+    private static final byte[] SEPARATOR = {','};
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResponseCacheProperties properties;
+
+    private final Map<Integer, Entry> entries = Collections.synchronizedMap(
+            new LinkedHashMap<Integer, Entry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                    return size() > properties.getMaxEntries();
+                }
+            });
+
+    public BookResponseCache() {
+    }
+
+    BookResponseCache(ObjectMapper objectMapper, ResponseCacheProperties properties) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public boolean isGzipEnabled() {
+        return properties.isGzip();
+    }
+
+    /**
+     * Retrieves the JSON encoding of a book, encoding and caching it if needed.
+     */
+    public byte[] json(Book book) {
+        return entryFor(book).json;
+    }
+
+    /**
+     * Retrieves the gzipped JSON encoding of a book, compressing and caching it if needed.
+     */
+    public byte[] gzippedJson(Book book) {
+        Entry entry = entryFor(book);
+        byte[] gzipped = entry.gzipped;
+        if (gzipped == null) {
+            gzipped = gzip(entry.json);
+            entry.gzipped = gzipped;
+        }
+        return gzipped;
+    }
+
+    /**
+     * Retrieves the JSON encoding of each book, to be assembled with {@link #writeJsonArray}.
+     */
+    public byte[][] jsonFragments(Collection<Book> books) {
+        byte[][] fragments = new byte[books.size()][];
+        int i = 0;
+        for (Book book : books) {
+            fragments[i++] = json(book);
+        }
+        return fragments;
+    }
+
+    /**
+     * Computes the length of the JSON array {@link #writeJsonArray} writes for the given fragments.
+     */
+    public static long jsonArrayLength(byte[][] fragments) {
+        long length = ARRAY_START.length + ARRAY_END.length + Math.max(0, fragments.length - 1L) * SEPARATOR.length;
+        for (byte[] fragment : fragments) {
+            length += fragment.length;
+        }
+        return length;
+    }
+
+    /**
+     * Writes the given JSON fragments as one JSON array.
+     */
+    public static void writeJsonArray(byte[][] fragments, OutputStream outputStream) throws IOException {
+        outputStream.write(ARRAY_START);
+        for (int i = 0; i < fragments.length; i++) {
+            if (i > 0) {
+                outputStream.write(SEPARATOR);
+            }
+            outputStream.write(fragments[i]);
+        }
+        outputStream.write(ARRAY_END);
+    }
+
+    /**
+     * Drops the cached encoding of a book.
+     *
+     * @param id the ID of the book that changed
+     */
+    public void evict(int id) {
+        entries.remove(id);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private Entry entryFor(Book book) {
+        Entry entry = entries.get(book.getId());
+        if (entry != null && entry.snapshot.equals(book)) {
+            return entry;
+        }
+
+        entry = new Entry(snapshot(book), encode(book));
+        entries.put(book.getId(), entry);
+        return entry;
+    }
+
+    private byte[] encode(Book book) {
+        try {
+            return objectMapper.writeValueAsBytes(book);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode book with ID: " + book.getId(), e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 2 + 32);
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(compressed)) {
+            gzipStream.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static Book snapshot(Book book) {
+        return new Book(book.getId(), book.getTitle(), book.getAuthor(), book.getDescription(),
+                book.getPrice(), book.getQuantity(), book.getReorderPoint());
+    }
+
+    private static final class Entry {
+        private final Book snapshot;
+        private final byte[] json;
+        private volatile byte[] gzipped;
+
+        private Entry(Book snapshot, byte[] json) {
+            this.snapshot = snapshot;
+            this.json = json;
+        }
+    }
+}
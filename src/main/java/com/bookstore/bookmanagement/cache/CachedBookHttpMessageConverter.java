@@ -0,0 +1,108 @@
+package com.bookstore.bookmanagement.cache;
+
+import com.bookstore.bookmanagement.entities.Book;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Writes {@code Book} and {@code Collection<Book>} responses from {@link BookResponseCache}
+ * instead of serializing them with Jackson on every request. Single books are sent gzipped
+ * to clients that accept it. Everything else, and all request bodies, is left to Jackson.
+ */
+public class CachedBookHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final BookResponseCache bookResponseCache;
+
+    public CachedBookHttpMessageConverter(BookResponseCache bookResponseCache) {
+        super(MediaType.APPLICATION_JSON);
+        this.bookResponseCache = bookResponseCache;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Book.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!bookResponseCache.isEnabled() || !canWrite(mediaType)) {
+            return false;
+        }
+        return Book.class == clazz || isBookCollection(type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        HttpHeaders headers = outputMessage.getHeaders();
+        if (body instanceof Book) {
+            byte[] bytes;
+            if (bookResponseCache.isGzipEnabled()) {
+                // shared caches must not hand a plain response to a gzip client or the other way round
+                headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            if (bookResponseCache.isGzipEnabled() && acceptsGzip()) {
+                bytes = bookResponseCache.gzippedJson((Book) body);
+                headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            } else {
+                bytes = bookResponseCache.json((Book) body);
+            }
+            headers.setContentLength(bytes.length);
+            outputMessage.getBody().write(bytes);
+        } else {
+            byte[][] fragments = bookResponseCache.jsonFragments((Collection<Book>) body);
+            headers.setContentLength(BookResponseCache.jsonArrayLength(fragments));
+            BookResponseCache.writeJsonArray(fragments, outputMessage.getBody());
+        }
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("CachedBookHttpMessageConverter only writes responses");
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("CachedBookHttpMessageConverter only writes responses");
+    }
+
+    private static boolean isBookCollection(Type type) {
+        if (!(type instanceof ParameterizedType)) {
+            return false;
+        }
+        ParameterizedType parameterizedType = (ParameterizedType) type;
+        return parameterizedType.getRawType() instanceof Class
+                && Collection.class.isAssignableFrom((Class<?>) parameterizedType.getRawType())
+                && parameterizedType.getActualTypeArguments()[0] == Book.class;
+    }
+
+    private static boolean acceptsGzip() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return false;
+        }
+        String acceptEncoding = ((ServletRequestAttributes) attributes).getRequest().getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+}
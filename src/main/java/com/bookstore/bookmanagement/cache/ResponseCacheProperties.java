@@ -0,0 +1,26 @@
+package com.bookstore.bookmanagement.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "bookmanagement.response-cache")
+public class ResponseCacheProperties {
+
+    /**
+     * Whether Book responses are served from pre-encoded JSON.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of books kept encoded; the least recently used one is dropped beyond that.
+     */
+    private int maxEntries = 10_000;
+
+    /**
+     * Whether a gzipped copy is kept as well, for clients sending {@code Accept-Encoding: gzip}.
+     */
+    private boolean gzip = true;
+}
@@ -0,0 +1,38 @@
+package com.bookstore.bookmanagement.config;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the Eureka instance status in line with the readiness probe, so the gateway only
+ * routes to this instance once it can actually serve traffic. The status change triggers
+ * an asynchronous re-registration by the Eureka client, off the startup path.
+ */
+@Component
+@Slf4j
+public class ReadinessEurekaRegistrar {
+
+    @Autowired
+    private ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+
+    @EventListener
+    public void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        ApplicationInfoManager infoManager = applicationInfoManager.getIfAvailable();
+        if (infoManager == null) {
+            return;
+        }
+
+        InstanceStatus status = event.getState() == ReadinessState.ACCEPTING_TRAFFIC
+                ? InstanceStatus.UP
+                : InstanceStatus.OUT_OF_SERVICE;
+        log.info("Readiness changed to {}, setting Eureka instance status to {}", event.getState(), status);
+        infoManager.setInstanceStatus(status);
+    }
+}
@@ -0,0 +1,56 @@
+package com.bookstore.bookmanagement.config;
+
+import com.bookstore.bookmanagement.datasource.ReplicaRoutingDataSource;
+import com.bookstore.bookmanagement.datasource.RoutingDataSourceProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single {@code spring.datasource} with a primary and read replicas, each with
+ * its own connection pool, when {@code bookmanagement.datasource.routing.enabled} is set.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "bookmanagement.datasource.routing", name = "enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(RoutingDataSourceProperties properties) {
+        DataSource primary = pool("primary", properties.getPrimary(), false);
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            replicas.add(pool("replica-" + i, properties.getReplicas().get(i), true));
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, properties.getMaxReplicationLag());
+    }
+
+    /**
+     * The data source JPA uses. Connections are only fetched on the first statement, once the
+     * transaction's read-only flag is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private static HikariDataSource pool(String name, RoutingDataSourceProperties.Pool pool, boolean readOnly) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(pool.getUrl());
+        config.setUsername(pool.getUsername());
+        config.setPassword(pool.getPassword());
+        config.setMaximumPoolSize(pool.getMaximumPoolSize());
+        config.setMinimumIdle(pool.getMinimumIdle());
+        config.setReadOnly(readOnly);
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,18 @@
+package com.bookstore.bookmanagement.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Beans that must stay eager when {@code spring.main.lazy-initialization} is on,
+     * because they have to observe startup itself.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(ReadinessEurekaRegistrar.class, StartupTimingFilter.class);
+    }
+}
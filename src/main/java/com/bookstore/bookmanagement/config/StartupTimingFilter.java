@@ -0,0 +1,43 @@
+package com.bookstore.bookmanagement.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Logs the time from JVM start until the first business request has been served.
+ * Actuator calls (probes) are ignored so the number reflects real time-to-first-request.
+ */
+@Component
+@Slf4j
+public class StartupTimingFilter extends OncePerRequestFilter {
+
+    private final AtomicBoolean firstRequestServed = new AtomicBoolean();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return firstRequestServed.get() || request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (firstRequestServed.compareAndSet(false, true)) {
+                log.info("Time to first request: {} ms since JVM start ({} {})",
+                        ManagementFactory.getRuntimeMXBean().getUptime(),
+                        request.getMethod(), request.getRequestURI());
+            }
+        }
+    }
+}
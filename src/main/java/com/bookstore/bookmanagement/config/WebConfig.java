@@ -0,0 +1,38 @@
+package com.bookstore.bookmanagement.config;
+
+import com.bookstore.bookmanagement.cache.BookResponseCache;
+import com.bookstore.bookmanagement.cache.CachedBookHttpMessageConverter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private BookResponseCache bookResponseCache;
+
+    @Autowired
+    private Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Spring MVC registers a CBOR converter because jackson-dataformat-cbor is present;
+        // give it the same spring.jackson.* settings as JSON
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter instanceof MappingJackson2CborHttpMessageConverter) {
+                ((MappingJackson2CborHttpMessageConverter) converter).setObjectMapper(
+                        jackson2ObjectMapperBuilder.factory(new CBORFactory()).build());
+            }
+        }
+
+        // ahead of Jackson, so Book responses are written from pre-encoded bytes
+        converters.add(0, new CachedBookHttpMessageConverter(bookResponseCache));
+    }
+}
@@ -1,15 +1,22 @@
 package com.bookstore.bookmanagement.controllers;
 
 import com.bookstore.bookmanagement.entities.Book;
+import com.bookstore.bookmanagement.exceptions.InventoryRejectedException;
+import com.bookstore.bookmanagement.models.BookAdjustment;
 import com.bookstore.bookmanagement.models.BookDetail;
+import com.bookstore.bookmanagement.models.InventoryResult;
 import com.bookstore.bookmanagement.services.BookService;
+import com.bookstore.bookmanagement.utils.RateLimitedLogger;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -18,9 +25,14 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookController {
 
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     @Autowired
     private BookService bookService;
 
+    // unknown IDs and bad patches are client mistakes, and bots send plenty of them
+    private final RateLimitedLogger clientErrorLog = new RateLimitedLogger(log, Duration.ofSeconds(10));
+
     /**
      * Retrieves all books.
      *
@@ -45,7 +57,7 @@ public class BookController {
             if (book != null) {
                 return ResponseEntity.ok(book);
             } else {
-                log.warn("Book not found with ID: {}", id);
+                clientErrorLog.warn("Book not found with ID: {}", id);
                 return ResponseEntity.notFound().build();
             }
         } catch (Exception e) {
@@ -55,39 +67,57 @@ public class BookController {
     }
 
     /**
-     * Used to issue books when an order is placed
+     * Used to issue books when an order is placed. Requests and responses may be JSON or CBOR,
+     * chosen by the {@code Content-Type} and {@code Accept} headers.
      *
      * @param bookDetailList List of object having book ids and their required quantity
-     * @return
+     * @return ResponseEntity containing the updated books; rejected orders are answered by
+     * {@link InventoryExceptionHandler} with 404 Not Found or 409 Conflict
      */
-    @PutMapping("/order")
+    @PutMapping(value = "/order",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public ResponseEntity<Object> orderBooks(@RequestBody  List<BookDetail> bookDetailList) {
+        InventoryResult result;
         try {
-            List<Book> books = bookService.orderBooks(bookDetailList);
-            log.info("Books issued successfully");
-            return new ResponseEntity<>(books, HttpStatus.OK);
+            result = bookService.orderBooks(bookDetailList);
         } catch (Exception e) {
             log.error("Failed to issue books", e);
             return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
+
+        if (!result.isSuccessful()) {
+            throw new InventoryRejectedException("Order rejected", result);
+        }
+        log.info("Books issued successfully");
+        return new ResponseEntity<>(result.getBooks(), HttpStatus.OK);
     }
 
     /**
-     * Used to return back books to inventory when an order is cancelled
+     * Used to return back books to inventory when an order is cancelled. Requests and responses
+     * may be JSON or CBOR, like {@link #orderBooks(List)}.
      *
-     * @param bookDetailList
-     * @return
+     * @param bookDetailList List of object having book ids and their returned quantity
+     * @return ResponseEntity containing true; rejected returns are answered by
+     * {@link InventoryExceptionHandler} with 404 Not Found
      */
-    @PutMapping("/return")
+    @PutMapping(value = "/return",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public ResponseEntity<Boolean> returnBooks(@RequestBody List<BookDetail> bookDetailList) {
+        InventoryResult result;
         try {
-            bookService.returnBooks(bookDetailList);
-            log.info("Books returned successfully");
-            return new ResponseEntity<>(true, HttpStatus.OK);
+            result = bookService.returnBooks(bookDetailList);
         } catch (Exception e) {
             log.error("Failed to return books", e);
             return new ResponseEntity<>(false, HttpStatus.INTERNAL_SERVER_ERROR);
         }
+
+        if (!result.isSuccessful()) {
+            throw new InventoryRejectedException("Return rejected", result);
+        }
+        log.info("Books returned successfully");
+        return new ResponseEntity<>(true, HttpStatus.OK);
     }
 
     /**
@@ -123,7 +153,7 @@ public class BookController {
                 log.info("Updated book with ID: {}", updatedBook.getId());
                 return ResponseEntity.ok(updatedBook);
             } else {
-                log.warn("Book not found with ID: {}", id);
+                clientErrorLog.warn("Book not found with ID: {}", id);
                 return ResponseEntity.notFound().build();
             }
         } catch (Exception e) {
@@ -132,6 +162,59 @@ public class BookController {
         }
     }
 
+    /**
+     * Partially updates a book with a JSON Merge Patch: fields present in the patch are set,
+     * fields set to null are cleared and everything else is left as it is.
+     *
+     * @param id    the ID of the book to patch
+     * @param patch the merge patch
+     * @return ResponseEntity containing the patched book if found, 404 Not Found if not found,
+     * or 400 Bad Request if the patch is invalid
+     */
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Book> patchBook(@PathVariable("id") int id, @RequestBody JsonNode patch) {
+        try {
+            Book patchedBook = bookService.patchBook(id, patch);
+            if (patchedBook != null) {
+                log.info("Patched book with ID: {}", id);
+                return ResponseEntity.ok(patchedBook);
+            } else {
+                clientErrorLog.warn("Book not found with ID: {}", id);
+                return ResponseEntity.notFound().build();
+            }
+        } catch (IllegalArgumentException e) {
+            clientErrorLog.warn("Rejected patch for book with ID: {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Failed to patch book with ID: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Changes the price and/or stock of many books in one request, for repricing and stock-taking jobs.
+     *
+     * @param adjustments the new prices and stock changes, per book
+     * @return ResponseEntity containing the updated books; rejected adjustments are answered by
+     * {@link InventoryExceptionHandler} with 404 Not Found or 409 Conflict
+     */
+    @PatchMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Object> adjustBooks(@RequestBody List<BookAdjustment> adjustments) {
+        InventoryResult result;
+        try {
+            result = bookService.adjustBooks(adjustments);
+        } catch (Exception e) {
+            log.error("Failed to adjust books", e);
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+        if (!result.isSuccessful()) {
+            throw new InventoryRejectedException("Adjustment rejected", result);
+        }
+        log.info("Adjusted {} books", adjustments.size());
+        return new ResponseEntity<>(result.getBooks(), HttpStatus.OK);
+    }
+
     /**
      * Deletes a book.
      *
@@ -146,7 +229,7 @@ public class BookController {
                 log.info("Deleted book with ID: {}", id);
                 return ResponseEntity.noContent().build();
             } else {
-                log.error("Book not found with ID: {}", id);
+                clientErrorLog.warn("Book not found with ID: {}", id);
                 return ResponseEntity.notFound().build();
             }
         } catch (Exception e) {
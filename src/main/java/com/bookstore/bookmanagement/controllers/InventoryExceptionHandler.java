@@ -0,0 +1,33 @@
+package com.bookstore.bookmanagement.controllers;
+
+import com.bookstore.bookmanagement.exceptions.InventoryRejectedException;
+import com.bookstore.bookmanagement.models.InventoryResult;
+import com.bookstore.bookmanagement.utils.RateLimitedLogger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.Duration;
+
+@RestControllerAdvice
+@Slf4j
+public class InventoryExceptionHandler {
+
+    private final RateLimitedLogger rejectionLog = new RateLimitedLogger(log, Duration.ofSeconds(10));
+
+    /**
+     * Answers a rejected order, return or adjustment with its per-line outcome.
+     *
+     * @param e the rejection
+     * @return ResponseEntity with 404 Not Found if a book is unknown, otherwise 409 Conflict
+     */
+    @ExceptionHandler(InventoryRejectedException.class)
+    public ResponseEntity<InventoryResult> handleInventoryRejected(InventoryRejectedException e) {
+        InventoryResult result = e.getResult();
+        HttpStatus status = result.hasUnknownBooks() ? HttpStatus.NOT_FOUND : HttpStatus.CONFLICT;
+        rejectionLog.warn("{} with status {}", e.getMessage(), status.value());
+        return ResponseEntity.status(status).body(result);
+    }
+}
@@ -0,0 +1,55 @@
+package com.bookstore.bookmanagement.controllers;
+
+import com.bookstore.bookmanagement.journal.InventoryJournal;
+import com.bookstore.bookmanagement.journal.JournalRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/books")
+@Slf4j
+public class InventoryJournalController {
+
+    @Autowired
+    private InventoryJournal inventoryJournal;
+
+    /**
+     * Reconstructs the stock of a book at a point in time from the inventory journal.
+     *
+     * @param id the ID of the book
+     * @param at the point in time, as an ISO-8601 instant
+     * @return ResponseEntity containing the quantity, or 404 Not Found if the book has no journalled change by then
+     */
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<Integer> getStockAt(@PathVariable("id") int id, @RequestParam("at") Instant at) {
+        Integer quantity = inventoryJournal.stockAt(id, at);
+        if (quantity == null) {
+            log.warn("No journalled stock for book with ID: {} at {}", id, at);
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(quantity);
+    }
+
+    /**
+     * Retrieves the journalled quantity changes of a book.
+     *
+     * @param id   the ID of the book
+     * @param from start of the range, defaults to the beginning of the journal
+     * @param to   end of the range, defaults to now
+     * @return ResponseEntity containing the changes in the order they were made
+     */
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<JournalRecord>> getHistory(@PathVariable("id") int id,
+                                                          @RequestParam(value = "from", required = false) Instant from,
+                                                          @RequestParam(value = "to", required = false) Instant to) {
+        List<JournalRecord> history = inventoryJournal.history(id,
+                from != null ? from : Instant.EPOCH,
+                to != null ? to : Instant.now());
+        return ResponseEntity.ok(history);
+    }
+}
@@ -1,8 +1,24 @@
 package com.bookstore.bookmanagement.dao;
 
 import com.bookstore.bookmanagement.entities.Book;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
 
 public interface BookRepository extends CrudRepository<Book, Integer> {
-    // add custom methods here
+
+    @Query("select b.id from Book b")
+    List<Integer> findAllIds();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Book b where b.id = :id")
+    Optional<Book> findByIdForUpdate(@Param("id") int id);
+
+    @Query("select b from Book b where b.reorderPoint is not null and b.quantity < b.reorderPoint")
+    List<Book> findBelowReorderPoint();
 }
@@ -0,0 +1,127 @@
+package com.bookstore.bookmanagement.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Stand-in for database replication when running locally with embedded H2 replicas: copies
+ * the configured tables from the primary to every replica at a fixed interval, creating them
+ * on the replica first if needed.
+ * <p>
+ * Each run rewrites whole tables in one replica transaction, so readers see either the old or
+ * the new copy. That is fine for development and tests, not for real data sizes.
+ */
+@Component
+@ConditionalOnProperty(prefix = "bookmanagement.datasource.routing", name = {"enabled", "local-replicator.enabled"},
+        havingValue = "true")
+@Slf4j
+public class LocalReplicator implements SchedulingConfigurer {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private RoutingDataSourceProperties properties;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        long intervalMillis = properties.getLocalReplicator().getInterval().toMillis();
+        taskRegistrar.addFixedDelayTask(new IntervalTask(this::replicate, intervalMillis, intervalMillis));
+    }
+
+    public void replicate() {
+        for (ReplicaRoutingDataSource.Replica replica : routingDataSource.getReplicas()) {
+            try (Connection source = routingDataSource.getPrimary().getConnection();
+                 Connection target = replica.dataSource.getConnection()) {
+                copyTables(source, target);
+            } catch (SQLException e) {
+                log.warn("Failed to replicate to {}: {}", replica.key, e.getMessage());
+            }
+        }
+    }
+
+    private void copyTables(Connection source, Connection target) throws SQLException {
+        target.setReadOnly(false);
+        target.setAutoCommit(false);
+        try {
+            for (String table : properties.getLocalReplicator().getTables()) {
+                if (!tableExists(target, table)) {
+                    createTable(source, target, table);
+                }
+                copyTable(source, target, table);
+            }
+            target.commit();
+        } catch (SQLException e) {
+            target.rollback();
+            throw e;
+        }
+    }
+
+    private static boolean tableExists(Connection connection, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet tables = metaData.getTables(null, null, table, null)) {
+            return tables.next();
+        }
+    }
+
+    private static void createTable(Connection source, Connection target, String table) throws SQLException {
+        // H2 writes the DDL of the table, its primary key and its constraints
+        try (Statement script = source.createStatement();
+             ResultSet statements = script.executeQuery("SCRIPT NODATA TABLE " + table);
+             Statement ddl = target.createStatement()) {
+            while (statements.next()) {
+                String statement = statements.getString(1);
+                if ((statement.startsWith("CREATE") && statement.contains(" TABLE ")) || statement.startsWith("ALTER TABLE")) {
+                    ddl.execute(statement);
+                }
+            }
+        }
+        log.info("Created table {} on replica", table);
+    }
+
+    private static void copyTable(Connection source, Connection target, String table) throws SQLException {
+        try (Statement select = source.createStatement();
+             ResultSet rows = select.executeQuery("SELECT * FROM " + table)) {
+            int columns = rows.getMetaData().getColumnCount();
+            try (Statement delete = target.createStatement()) {
+                delete.executeUpdate("DELETE FROM " + table);
+            }
+
+            StringBuilder insert = new StringBuilder("INSERT INTO ").append(table).append(" VALUES (?");
+            for (int column = 1; column < columns; column++) {
+                insert.append(", ?");
+            }
+            insert.append(')');
+            try (PreparedStatement statement = target.prepareStatement(insert.toString())) {
+                int batched = 0;
+                while (rows.next()) {
+                    for (int column = 1; column <= columns; column++) {
+                        statement.setObject(column, rows.getObject(column));
+                    }
+                    statement.addBatch();
+                    if (++batched == BATCH_SIZE) {
+                        statement.executeBatch();
+                        batched = 0;
+                    }
+                }
+                if (batched > 0) {
+                    statement.executeBatch();
+                }
+            }
+        }
+    }
+}
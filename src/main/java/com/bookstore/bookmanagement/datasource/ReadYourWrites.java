@@ -0,0 +1,32 @@
+package com.bookstore.bookmanagement.datasource;
+
+/**
+ * Holds the time of the current client's last write for the request being handled, so
+ * {@link ReplicaRoutingDataSource} only reads from replicas that have caught up with it.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Long> LAST_WRITE_MILLIS = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * Makes reads on this thread see every change committed up to {@code writeMillis}.
+     */
+    public static void require(long writeMillis) {
+        LAST_WRITE_MILLIS.set(writeMillis);
+    }
+
+    /**
+     * Retrieves the time reads on this thread must have caught up with, or 0 if there is none.
+     */
+    public static long requiredMillis() {
+        Long writeMillis = LAST_WRITE_MILLIS.get();
+        return writeMillis != null ? writeMillis : 0;
+    }
+
+    public static void clear() {
+        LAST_WRITE_MILLIS.remove();
+    }
+}
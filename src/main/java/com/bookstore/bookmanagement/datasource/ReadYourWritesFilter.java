@@ -0,0 +1,75 @@
+package com.bookstore.bookmanagement.datasource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gives every client read-your-writes consistency: after a client's request changed something,
+ * its reads only go to replicas that have caught up with that change. Clients are told apart
+ * by their {@code X-Client-Id} header, or their address if they do not send one.
+ * <p>
+ * A write is forgotten once it is older than {@code maxReplicationLag}, because every replica
+ * recent enough to be read from at all has caught up with it by then.
+ */
+@Component
+@ConditionalOnProperty(prefix = "bookmanagement.datasource.routing", name = "enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter implements SchedulingConfigurer {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    @Autowired
+    private RoutingDataSourceProperties properties;
+
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        if (clientId == null || clientId.isBlank()) {
+            clientId = request.getRemoteAddr();
+        }
+
+        Long lastWrite = lastWrites.get(clientId);
+        if (lastWrite != null) {
+            ReadYourWrites.require(lastWrite);
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+
+        // taken after the request's transaction committed, so a replica at this time has the change
+        if (!isReadOnly(request.getMethod()) && response.getStatus() < 400) {
+            lastWrites.put(clientId, System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedRateTask(new IntervalTask(this::forgetOldWrites, properties.getHeartbeatInterval().toMillis()));
+    }
+
+    public void forgetOldWrites() {
+        long oldest = System.currentTimeMillis() - properties.getMaxReplicationLag().toMillis();
+        lastWrites.values().removeIf(writeMillis -> writeMillis < oldest);
+    }
+
+    private static boolean isReadOnly(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+}
@@ -0,0 +1,111 @@
+package com.bookstore.bookmanagement.datasource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary.
+ * <p>
+ * A replica is only used while it has caught up to within {@code maxReplicationLag} of the
+ * primary and, for clients that wrote recently, to their last write (see {@link ReadYourWrites}).
+ * When no replica qualifies the primary serves the read. Replicas report how far they have
+ * caught up through {@link ReplicationHeartbeat}; until the first heartbeat is read back,
+ * all reads go to the primary.
+ * <p>
+ * The routing decision is made when a connection is fetched, so this must be wrapped in a
+ * {@code LazyConnectionDataSourceProxy}: the transaction's read-only flag is only known once
+ * the transaction has begun.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources, Duration maxLag) {
+        this.primary = primary;
+        this.maxLagMillis = maxLag.toMillis();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        List<Replica> replicaList = new ArrayList<>(replicaDataSources.size());
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            Replica replica = new Replica("replica-" + i, replicaDataSources.get(i));
+            targets.put(replica.key, replica.dataSource);
+            replicaList.add(replica);
+        }
+        this.replicas = Collections.unmodifiableList(replicaList);
+
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        Replica replica = pickReplica(ReadYourWrites.requiredMillis());
+        return replica != null ? replica.key : PRIMARY;
+    }
+
+    /**
+     * Picks the next replica in turn that is recent enough, or null if none is.
+     */
+    Replica pickReplica(long requiredMillis) {
+        long oldestAcceptable = Math.max(requiredMillis, System.currentTimeMillis() - maxLagMillis);
+        int start = nextReplica.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (replica.caughtUpToMillis >= oldestAcceptable) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (primary instanceof AutoCloseable) {
+            ((AutoCloseable) primary).close();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) replica.dataSource).close();
+            }
+        }
+    }
+
+    static final class Replica {
+        final String key;
+        final DataSource dataSource;
+        // primary heartbeat time last read back from this replica, -1 while unknown
+        volatile long caughtUpToMillis = -1;
+
+        private Replica(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+    }
+}
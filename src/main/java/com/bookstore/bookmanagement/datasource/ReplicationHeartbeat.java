@@ -0,0 +1,80 @@
+package com.bookstore.bookmanagement.datasource;
+
+import com.bookstore.bookmanagement.utils.RateLimitedLogger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Measures replication lag by writing the current time to a heartbeat row on the primary and
+ * reading it back from every replica. A replica that returns time T has applied everything
+ * the primary committed before T.
+ */
+@Component
+@ConditionalOnProperty(prefix = "bookmanagement.datasource.routing", name = "enabled", havingValue = "true")
+@Slf4j
+public class ReplicationHeartbeat implements SchedulingConfigurer {
+
+    static final String TABLE = "REPLICATION_HEARTBEAT";
+
+    private final RateLimitedLogger replicaLog = new RateLimitedLogger(log, Duration.ofSeconds(30));
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private RoutingDataSourceProperties properties;
+
+    @PostConstruct
+    public void init() throws SQLException {
+        try (Connection connection = routingDataSource.getPrimary().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS " + TABLE
+                    + " (ID INT PRIMARY KEY, BEAT_MILLIS BIGINT NOT NULL)");
+        }
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedRateTask(new IntervalTask(this::beat, properties.getHeartbeatInterval().toMillis()));
+    }
+
+    public void beat() {
+        try (Connection connection = routingDataSource.getPrimary().getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "MERGE INTO " + TABLE + " (ID, BEAT_MILLIS) KEY (ID) VALUES (1, ?)")) {
+            statement.setLong(1, System.currentTimeMillis());
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            log.error("Failed to write replication heartbeat to the primary", e);
+        }
+
+        for (ReplicaRoutingDataSource.Replica replica : routingDataSource.getReplicas()) {
+            replica.caughtUpToMillis = readBeat(replica);
+        }
+    }
+
+    private long readBeat(ReplicaRoutingDataSource.Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT BEAT_MILLIS FROM " + TABLE + " WHERE ID = 1")) {
+            return resultSet.next() ? resultSet.getLong(1) : -1;
+        } catch (SQLException e) {
+            replicaLog.warn("Failed to read replication heartbeat from {}, not reading from it: {}",
+                    replica.key, e.getMessage());
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.bookstore.bookmanagement.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "bookmanagement.datasource.routing")
+public class RoutingDataSourceProperties {
+
+    /**
+     * Whether read-only transactions are sent to replicas. When disabled, {@code spring.datasource} is used as usual.
+     */
+    private boolean enabled = false;
+
+    /**
+     * The primary database, which takes every read-write transaction.
+     */
+    private Pool primary = new Pool();
+
+    /**
+     * Read replicas, used in turn by read-only transactions.
+     */
+    private List<Pool> replicas = new ArrayList<>();
+
+    /**
+     * Replicas further behind the primary than this are skipped; reads fall back to the primary when all are.
+     */
+    private Duration maxReplicationLag = Duration.ofSeconds(5);
+
+    /**
+     * How often a heartbeat is written to the primary and read back from each replica to measure lag.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(1);
+
+    /**
+     * Stand-in for database replication, for running with embedded replicas locally.
+     */
+    private Replicator localReplicator = new Replicator();
+
+    @Data
+    public static class Pool {
+
+        private String url;
+
+        private String username = "sa";
+
+        private String password = "";
+
+        /**
+         * Maximum number of connections in this database's pool.
+         */
+        private int maximumPoolSize = 10;
+
+        /**
+         * Number of idle connections kept open in this database's pool.
+         */
+        private int minimumIdle = 2;
+    }
+
+    @Data
+    public static class Replicator {
+
+        /**
+         * Whether the primary's tables are copied to every replica. Only meant for embedded databases.
+         */
+        private boolean enabled = false;
+
+        /**
+         * How often the tables are copied.
+         */
+        private Duration interval = Duration.ofSeconds(1);
+
+        /**
+         * Tables to copy, in order. The heartbeat table comes first, so a replica never claims
+         * to be more up to date than the data copied after it.
+         */
+        private List<String> tables = new ArrayList<>(List.of(ReplicationHeartbeat.TABLE, "BOOK"));
+    }
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -11,6 +12,8 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 
 @Entity
+// updates only write the columns that changed, so repricing does not rewrite descriptions
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,4 +35,13 @@ public class Book {
 
     @NonNull
     private int quantity;
+
+    /**
+     * Stock level below which the book should be reordered, or null if it is never reordered.
+     */
+    private Integer reorderPoint;
+
+    public Book(int id, @NonNull String title, String author, String description, double price, int quantity) {
+        this(id, title, author, description, price, quantity, null);
+    }
 }
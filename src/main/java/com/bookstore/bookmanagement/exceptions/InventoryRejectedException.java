@@ -0,0 +1,19 @@
+package com.bookstore.bookmanagement.exceptions;
+
+import com.bookstore.bookmanagement.models.InventoryResult;
+import lombok.Getter;
+
+/**
+ * Signals a rejected order or return to the exception handler. Rejections are a normal
+ * business outcome, so this exception captures no stack trace.
+ */
+@Getter
+public class InventoryRejectedException extends RuntimeException {
+
+    private final transient InventoryResult result;
+
+    public InventoryRejectedException(String message, InventoryResult result) {
+        super(message, null, false, false);
+        this.result = result;
+    }
+}
@@ -0,0 +1,464 @@
+package com.bookstore.bookmanagement.journal;
+
+import com.bookstore.bookmanagement.config.RequestIdFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of every book quantity change.
+ * <p>
+ * Records are fixed-size and written into memory-mapped segment files named after the
+ * sequence number of their first record. Each record carries a CRC32, which is how readers
+ * and crash recovery find the end of the written data.
+ * <p>
+ * With {@code syncOnCommit} (the default) an append does not return until its record has
+ * been forced to disk, so a change is durable before its transaction commits. Appends that
+ * wait at the same time share one fsync: the first waiter forces everything written so far
+ * and the others wait for it (group commit). Without it, appends only copy bytes into the
+ * mapping and a background thread forces dirty pages every {@code flushIntervalMs}; changes
+ * acknowledged within that window are lost if the machine crashes.
+ */
+@Component
+@Slf4j
+public class InventoryJournal {
+
+    // bookId, delta, resultingQuantity (int), timestamp, requestId msb/lsb (long), crc (int)
+    static final int RECORD_SIZE = 40;
+    private static final int CRC_OFFSET = 36;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    @Autowired
+    private JournalProperties properties;
+
+    private Path directory;
+    private int segmentSize;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long nextSequence;
+    private long lastTimestamp;
+    private volatile boolean dirty;
+
+    private final ByteBuffer scratch = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private ScheduledExecutorService flusher;
+
+    private final Object forceMonitor = new Object();
+    // every record with a lower sequence is on disk
+    private long durableSequence;
+    private boolean forcing;
+
+    public InventoryJournal() {
+    }
+
+    InventoryJournal(JournalProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!properties.isEnabled()) {
+            log.info("Inventory journal is disabled");
+            return;
+        }
+
+        directory = Paths.get(properties.getDirectory());
+        segmentSize = properties.getSegmentSize() / RECORD_SIZE * RECORD_SIZE;
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Journal segment size must hold at least one record");
+        }
+        Files.createDirectories(directory);
+
+        List<Path> segments = listSegments();
+        if (segments.isEmpty()) {
+            openSegment(0);
+        } else {
+            recoverSegment(segments.get(segments.size() - 1));
+        }
+
+        durableSequence = nextSequence;
+
+        if (!properties.isSyncOnCommit()) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "inventory-journal-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flush, properties.getFlushIntervalMs(),
+                    properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+        }
+        log.info("Inventory journal opened in {}, next sequence {}", directory.toAbsolutePath(), nextSequence);
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        if (channel != null) {
+            buffer.force();
+            channel.close();
+            channel = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Moves every segment into a new {@code archive-<millis>} subdirectory and continues in an
+     * empty segment, so records written against an earlier database are no longer read.
+     *
+     * @return the directory the segments were moved to
+     * @throws IOException if the segments cannot be moved
+     */
+    public synchronized Path archive() throws IOException {
+        if (channel == null) {
+            throw new IllegalStateException("Inventory journal is not open");
+        }
+        buffer.force();
+        channel.close();
+        channel = null;
+
+        Path archive = directory.resolve("archive-" + System.currentTimeMillis());
+        Files.createDirectories(archive);
+        for (Path segment : listSegments()) {
+            Files.move(segment, archive.resolve(segment.getFileName()));
+        }
+        // sequences keep counting up, so waiters for earlier records are not confused
+        openSegment(nextSequence);
+        lastTimestamp = 0;
+        return archive;
+    }
+
+    /**
+     * Records a quantity change, tagged with the request ID of the current request if any.
+     * <p>
+     * Inside a transaction the record is written just before the transaction commits, so
+     * changes rolled back by the method itself never reach the journal. At that point the
+     * transaction still holds the row lock of the changed book, so records of one book are
+     * appended in commit order, which {@link #stockAt} and replay rely on. A commit that fails
+     * after this point (for example on a constraint violation while flushing) leaves its
+     * record behind. With {@code syncOnCommit} this also waits until the record is on disk.
+     *
+     * @param bookId            the ID of the book whose quantity changed
+     * @param delta             the change applied to the quantity
+     * @param resultingQuantity the quantity after the change
+     */
+    public void append(int bookId, int delta, int resultingQuantity) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        UUID requestId = currentRequestId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    appendAndSync(bookId, delta, resultingQuantity, requestId);
+                }
+            });
+        } else {
+            appendAndSync(bookId, delta, resultingQuantity, requestId);
+        }
+    }
+
+    private void appendAndSync(int bookId, int delta, int resultingQuantity, UUID requestId) {
+        long sequence = append(bookId, delta, resultingQuantity, requestId);
+        if (properties.isSyncOnCommit()) {
+            awaitDurable(sequence);
+        }
+    }
+
+    synchronized long append(int bookId, int delta, int resultingQuantity, UUID requestId) {
+        if (channel == null) {
+            throw new IllegalStateException("Inventory journal is not open");
+        }
+        try {
+            if (buffer.remaining() < RECORD_SIZE) {
+                buffer.force();
+                channel.close();
+                openSegment(nextSequence);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll inventory journal segment", e);
+        }
+
+        // timestamps never go backwards, which lets point-in-time queries stop early
+        lastTimestamp = Math.max(lastTimestamp, System.currentTimeMillis());
+
+        scratch.clear();
+        scratch.putInt(bookId)
+                .putInt(delta)
+                .putInt(resultingQuantity)
+                .putLong(lastTimestamp)
+                .putLong(requestId.getMostSignificantBits())
+                .putLong(requestId.getLeastSignificantBits());
+        crc.reset();
+        crc.update(scratch.array(), 0, CRC_OFFSET);
+        scratch.putInt((int) crc.getValue());
+
+        buffer.put(scratch.array(), 0, RECORD_SIZE);
+        dirty = true;
+        return nextSequence++;
+    }
+
+    /**
+     * Blocks until the record with the given sequence number is on disk. One waiting thread
+     * forces the current segment on behalf of all others; records appended while it forces
+     * are picked up by the next one.
+     */
+    void awaitDurable(long sequence) {
+        synchronized (forceMonitor) {
+            while (durableSequence <= sequence) {
+                if (!forcing) {
+                    forcing = true;
+                    break;
+                }
+                try {
+                    forceMonitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the inventory journal", e);
+                }
+            }
+            if (durableSequence > sequence) {
+                return;
+            }
+        }
+
+        // stays put if forcing fails, so the next waiter tries again
+        long forcedUpTo = 0;
+        try {
+            long upTo;
+            MappedByteBuffer toForce;
+            synchronized (this) {
+                // earlier segments were forced when they were rolled
+                upTo = nextSequence;
+                toForce = buffer;
+            }
+            toForce.force();
+            forcedUpTo = upTo;
+        } finally {
+            synchronized (forceMonitor) {
+                durableSequence = Math.max(durableSequence, forcedUpTo);
+                forcing = false;
+                forceMonitor.notifyAll();
+            }
+        }
+    }
+
+    long durableSequence() {
+        synchronized (forceMonitor) {
+            return durableSequence;
+        }
+    }
+
+    /**
+     * Reconstructs the quantity of a book at a point in time.
+     *
+     * @param bookId the ID of the book
+     * @param at     the point in time
+     * @return the quantity after the last change at or before {@code at}, or null if there is none
+     */
+    public Integer stockAt(int bookId, Instant at) {
+        long atMillis = at.toEpochMilli();
+        Integer[] quantity = new Integer[1];
+        forEachRecord(record -> {
+            if (record.getTimestamp() > atMillis) {
+                return false;
+            }
+            if (record.getBookId() == bookId) {
+                quantity[0] = record.getResultingQuantity();
+            }
+            return true;
+        });
+        return quantity[0];
+    }
+
+    /**
+     * Retrieves the quantity changes of a book within a time range.
+     *
+     * @param bookId the ID of the book
+     * @param from   start of the range, inclusive
+     * @param to     end of the range, inclusive
+     * @return the changes in the order they were made
+     */
+    public List<JournalRecord> history(int bookId, Instant from, Instant to) {
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        List<JournalRecord> records = new ArrayList<>();
+        forEachRecord(record -> {
+            if (record.getTimestamp() > toMillis) {
+                return false;
+            }
+            if (record.getBookId() == bookId && record.getTimestamp() >= fromMillis) {
+                records.add(record);
+            }
+            return true;
+        });
+        return records;
+    }
+
+    /**
+     * Visits every record in append order until the visitor returns false.
+     */
+    public void forEachRecord(Predicate<JournalRecord> visitor) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            for (Path segment : listSegments()) {
+                if (!readSegment(segment, visitor)) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read inventory journal", e);
+        }
+    }
+
+    void flush() {
+        MappedByteBuffer toForce;
+        synchronized (this) {
+            if (!dirty || channel == null) {
+                return;
+            }
+            dirty = false;
+            toForce = buffer;
+        }
+        try {
+            toForce.force();
+        } catch (RuntimeException e) {
+            dirty = true;
+            log.error("Failed to flush inventory journal", e);
+        }
+    }
+
+    private boolean readSegment(Path segment, Predicate<JournalRecord> visitor) throws IOException {
+        long sequence = firstSequenceOf(segment);
+        try (FileChannel readChannel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer readBuffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+            byte[] bytes = new byte[RECORD_SIZE];
+            CRC32 readCrc = new CRC32();
+            while (readBuffer.remaining() >= RECORD_SIZE) {
+                readBuffer.get(bytes);
+                JournalRecord record = decode(bytes, sequence++, readCrc);
+                if (record == null) {
+                    // end of written data in the active segment
+                    return true;
+                }
+                if (!visitor.test(record)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void recoverSegment(Path segment) throws IOException {
+        long firstSequence = firstSequenceOf(segment);
+        long validRecords = 0;
+        JournalRecord last = null;
+        try (FileChannel readChannel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer readBuffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+            byte[] bytes = new byte[RECORD_SIZE];
+            CRC32 readCrc = new CRC32();
+            while (readBuffer.remaining() >= RECORD_SIZE) {
+                readBuffer.get(bytes);
+                JournalRecord record = decode(bytes, firstSequence + validRecords, readCrc);
+                if (record == null) {
+                    break;
+                }
+                last = record;
+                validRecords++;
+            }
+        }
+
+        channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), segmentSize));
+        buffer.position((int) (validRecords * RECORD_SIZE));
+        // wipe a torn record left behind by a crash so the next append is not hidden behind it
+        if (buffer.remaining() >= RECORD_SIZE) {
+            buffer.duplicate().put(new byte[RECORD_SIZE]);
+        }
+        nextSequence = firstSequence + validRecords;
+        lastTimestamp = last != null ? last.getTimestamp() : 0;
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        nextSequence = firstSequence;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long firstSequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static JournalRecord decode(byte[] bytes, long sequence, CRC32 readCrc) {
+        ByteBuffer record = ByteBuffer.wrap(bytes);
+        long timestamp = record.getLong(12);
+        readCrc.reset();
+        readCrc.update(bytes, 0, CRC_OFFSET);
+        if (timestamp == 0 || record.getInt(CRC_OFFSET) != (int) readCrc.getValue()) {
+            return null;
+        }
+        UUID requestId = new UUID(record.getLong(20), record.getLong(28));
+        return new JournalRecord(sequence, record.getInt(0), record.getInt(4), record.getInt(8), timestamp, requestId);
+    }
+
+    private static UUID currentRequestId() {
+        String requestId = MDC.get(RequestIdFilter.REQUEST_ID_MDC_KEY);
+        if (requestId == null) {
+            return new UUID(0, 0);
+        }
+        try {
+            return UUID.fromString(requestId);
+        } catch (IllegalArgumentException e) {
+            return UUID.nameUUIDFromBytes(requestId.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
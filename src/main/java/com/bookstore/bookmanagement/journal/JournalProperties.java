@@ -0,0 +1,39 @@
+package com.bookstore.bookmanagement.journal;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "bookmanagement.journal")
+public class JournalProperties {
+
+    /**
+     * Whether quantity changes are written to the journal at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Directory holding the journal segment files.
+     */
+    private String directory = "data/journal";
+
+    /**
+     * Size of one segment file in bytes; a new segment is started when the current one is full.
+     */
+    private int segmentSize = 64 * 1024 * 1024;
+
+    /**
+     * Whether each change waits until its record is forced to disk before its transaction
+     * commits. Changes waiting at the same time share one fsync.
+     */
+    private boolean syncOnCommit = true;
+
+    /**
+     * How often dirty pages are forced to disk when {@code syncOnCommit} is off. All appends
+     * within one interval share one fsync, and changes acknowledged within the last interval
+     * are lost if the machine crashes.
+     */
+    private long flushIntervalMs = 50;
+}
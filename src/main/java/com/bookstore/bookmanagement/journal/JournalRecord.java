@@ -0,0 +1,20 @@
+package com.bookstore.bookmanagement.journal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * One quantity change of one book, as stored in the inventory journal.
+ */
+@Data
+@AllArgsConstructor
+public class JournalRecord {
+    private long sequence;
+    private int bookId;
+    private int delta;
+    private int resultingQuantity;
+    private long timestamp;
+    private UUID requestId;
+}
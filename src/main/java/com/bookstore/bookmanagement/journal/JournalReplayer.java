@@ -0,0 +1,108 @@
+package com.bookstore.bookmanagement.journal;
+
+import com.bookstore.bookmanagement.dao.BookRepository;
+import com.bookstore.bookmanagement.entities.Book;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rebuilds the quantities in the {@code book} table from the inventory journal.
+ * <p>
+ * Runs at startup when the application is started with {@code --journal.replay}, optionally
+ * with a point in time ({@code --journal.replay=2026-10-01T12:00:00Z}) to restore the stock
+ * as it was at that moment. The journal only holds quantities, so books must already exist
+ * in the table (e.g. restored from a catalogue backup); journal entries for missing books
+ * are reported and skipped, and nothing is replayed onto an empty table.
+ * <p>
+ * Book IDs are only meaningful within the database that assigned them. When the journal
+ * holds records but the table is empty (e.g. the in-memory database was recreated) and no
+ * replay was requested, the journal is archived so its records are not attributed to the
+ * new books that reuse those IDs.
+ */
+@Component
+@Slf4j
+public class JournalReplayer implements ApplicationRunner {
+
+    static final String REPLAY_OPTION = "journal.replay";
+
+    @Autowired
+    private InventoryJournal inventoryJournal;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!inventoryJournal.isEnabled()) {
+            return;
+        }
+        if (!args.containsOption(REPLAY_OPTION)) {
+            if (bookRepository.count() == 0 && hasRecords()) {
+                Path archive = inventoryJournal.archive();
+                log.warn("Inventory journal belongs to an earlier database as the book table is empty, archived it to {}",
+                        archive);
+            }
+            return;
+        }
+        List<String> values = args.getOptionValues(REPLAY_OPTION);
+        Instant upTo = values.isEmpty() ? Instant.now() : Instant.parse(values.get(0));
+        replay(upTo);
+    }
+
+    /**
+     * Sets every journalled book's quantity to its value at the given point in time.
+     *
+     * @param upTo the point in time to restore
+     * @return the number of books updated
+     */
+    public int replay(Instant upTo) {
+        if (bookRepository.count() == 0) {
+            log.error("Refusing to replay the inventory journal onto an empty book table, restore the books first");
+            return 0;
+        }
+        long upToMillis = upTo.toEpochMilli();
+        Map<Integer, Integer> quantities = new HashMap<>();
+        inventoryJournal.forEachRecord(record -> {
+            if (record.getTimestamp() > upToMillis) {
+                return false;
+            }
+            quantities.put(record.getBookId(), record.getResultingQuantity());
+            return true;
+        });
+
+        int updated = 0;
+        for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+            Book book = bookRepository.findById(entry.getKey()).orElse(null);
+            if (book == null) {
+                log.warn("Skipping journal replay for missing book with ID: {}", entry.getKey());
+                continue;
+            }
+            if (book.getQuantity() != entry.getValue()) {
+                book.setQuantity(entry.getValue());
+                bookRepository.save(book);
+                updated++;
+            }
+        }
+        log.info("Replayed inventory journal up to {}: {} books journalled, {} updated", upTo, quantities.size(), updated);
+        return updated;
+    }
+
+    private boolean hasRecords() {
+        boolean[] found = new boolean[1];
+        inventoryJournal.forEachRecord(record -> {
+            found[0] = true;
+            return false;
+        });
+        return found[0];
+    }
+}
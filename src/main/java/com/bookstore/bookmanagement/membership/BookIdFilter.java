@@ -0,0 +1,300 @@
+package com.bookstore.bookmanagement.membership;
+
+import com.bookstore.bookmanagement.dao.BookRepository;
+import com.bookstore.bookmanagement.utils.CountingBloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Membership filter over existing book IDs, so lookups of IDs that certainly do not exist
+ * can be answered without a database query.
+ * <p>
+ * The filter is loaded from {@link BookRepository} once the application is ready, kept up to
+ * date by {@code BookService} and rebuilt from the database twice per configured maximum
+ * staleness. Until it is loaded it never rejects anything, and removals that arrive before
+ * loading finishes are dropped, which can only cause false positives.
+ * <p>
+ * Books inserted elsewhere (other instances, SQL loads, replication) never pass through
+ * {@code BookService#createBook} and only reach the filter with the next rebuild. A miss is
+ * therefore only trusted while the filter is fresher than the maximum staleness, or always
+ * if the filter is configured as authoritative; otherwise it is checked against the database
+ * and IDs found there are added to the filter.
+ */
+@Component
+@Slf4j
+public class BookIdFilter implements SchedulingConfigurer {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookIdFilterProperties properties;
+
+    private volatile CountingBloomFilter filter;
+    private volatile boolean ready;
+    private volatile long loadedAt;
+    private final LongAdder rejectedLookups = new LongAdder();
+    private final LongAdder missedIds = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    // guards the fields below, which track the filter in use and the one being rebuilt
+    private final Object lock = new Object();
+    private long size;
+    private long snapshots;
+    private long filterSnapshot;
+    private CountingBloomFilter rebuilding;
+    private long rebuildingSize;
+
+    public BookIdFilter() {
+    }
+
+    BookIdFilter(BookRepository bookRepository, BookIdFilterProperties properties) {
+        this.bookRepository = bookRepository;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (properties.isEnabled()) {
+            filter = newFilter();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (filter == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        int ids = rebuild();
+        ready = true;
+
+        CountingBloomFilter loaded = filter;
+        log.info("Book ID filter loaded {} IDs in {} ms: {} counters, {} hash functions, {} bytes "
+                        + "({} bytes per million IDs), expected false-positive rate {}",
+                ids, (System.nanoTime() - start) / 1_000_000, loaded.getCounterCount(), loaded.getHashCount(),
+                loaded.getMemoryBytes(), bytesPerMillionIds(), loaded.expectedFalsePositiveRate(ids));
+    }
+
+    /**
+     * Schedules {@link #refresh} twice per maximum staleness, so a miss is never trusted
+     * longer than that after the book was inserted elsewhere.
+     */
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        long intervalMillis = properties.getMaxStaleness().toMillis() / 2;
+        if (properties.isEnabled() && intervalMillis > 0) {
+            taskRegistrar.addFixedRateTask(new IntervalTask(this::refresh, intervalMillis, intervalMillis));
+        }
+    }
+
+    /**
+     * Rebuilds a loaded filter from the database.
+     */
+    public void refresh() {
+        if (!ready) {
+            return;
+        }
+        long start = System.nanoTime();
+        int ids = rebuild();
+        log.debug("Book ID filter rebuilt with {} IDs in {} ms", ids, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Loads all IDs into a new filter and swaps it in. IDs added while the query runs are
+     * added to both filters, so books created meanwhile are not lost with the old filter.
+     */
+    private synchronized int rebuild() {
+        CountingBloomFilter fresh = newFilter();
+        long snapshot;
+        synchronized (lock) {
+            rebuilding = fresh;
+            rebuildingSize = 0;
+            snapshot = ++snapshots;
+        }
+        long start = System.nanoTime();
+        try {
+            List<Integer> ids = bookRepository.findAllIds();
+            for (Integer id : ids) {
+                fresh.add(id);
+            }
+            synchronized (lock) {
+                filter = fresh;
+                size = ids.size() + rebuildingSize;
+                filterSnapshot = snapshot;
+                loadedAt = start;
+            }
+            rebuilds.increment();
+            return ids.size();
+        } finally {
+            synchronized (lock) {
+                rebuilding = null;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a book ID certainly does not exist.
+     *
+     * @param id the book ID
+     * @return true if no book with this ID exists, false if it may exist
+     */
+    public boolean isDefinitelyAbsent(int id) {
+        if (!ready || !isTrusted() || filter.mightContain(id)) {
+            return false;
+        }
+        rejectedLookups.increment();
+        return true;
+    }
+
+    private boolean isTrusted() {
+        if (properties.isAuthoritative()) {
+            return true;
+        }
+        long maxStaleness = properties.getMaxStaleness().toNanos();
+        return maxStaleness > 0 && System.nanoTime() - loadedAt <= maxStaleness;
+    }
+
+    /**
+     * Records that a book was found in the database, adding its ID if the filter does not
+     * know it yet.
+     *
+     * @param id the ID of the book found
+     */
+    public void found(int id) {
+        // two racing lookups may both add the ID; the extra count can only cause false positives
+        if (ready && !filter.mightContain(id)) {
+            addNow(id);
+            missedIds.increment();
+        }
+    }
+
+    /**
+     * Adds the ID of a created book. Inside a transaction it is added once the transaction
+     * has committed, so a rebuild that started before the commit still receives it.
+     *
+     * @param id the ID of the created book
+     */
+    public void add(int id) {
+        if (filter == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addNow(id);
+                }
+            });
+        } else {
+            addNow(id);
+        }
+    }
+
+    private void addNow(int id) {
+        synchronized (lock) {
+            filter.add(id);
+            size++;
+            if (rebuilding != null) {
+                rebuilding.add(id);
+                rebuildingSize++;
+            }
+        }
+    }
+
+    /**
+     * Removes the ID of a deleted book. Inside a transaction it is removed once the
+     * transaction has committed, so a rolled-back delete cannot hide an existing book.
+     *
+     * @param id the ID of the deleted book
+     */
+    public void remove(int id) {
+        if (filter == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            long snapshot;
+            synchronized (lock) {
+                snapshot = snapshots;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeNow(id, snapshot);
+                }
+            });
+        } else {
+            removeNow(id, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Removes an ID unless the filter in use was loaded by a query that started after
+     * {@code lastSnapshotBeforeDelete}: that query may not have seen the book, and removing
+     * an absent ID would clear counters other IDs share. Skipping it only leaves a false
+     * positive until the next rebuild.
+     */
+    private void removeNow(int id, long lastSnapshotBeforeDelete) {
+        synchronized (lock) {
+            if (ready && filterSnapshot <= lastSnapshotBeforeDelete) {
+                filter.remove(id);
+                size--;
+            }
+        }
+    }
+
+    /**
+     * Reports sizing and effectiveness of the filter.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", filter != null);
+        stats.put("ready", ready);
+        CountingBloomFilter filter = this.filter;
+        if (filter != null) {
+            long size;
+            synchronized (lock) {
+                size = this.size;
+            }
+            stats.put("ids", size);
+            stats.put("expectedInsertions", properties.getExpectedInsertions());
+            stats.put("targetFalsePositiveRate", properties.getFalsePositiveRate());
+            stats.put("currentFalsePositiveRate", filter.expectedFalsePositiveRate(size));
+            stats.put("counters", filter.getCounterCount());
+            stats.put("hashFunctions", filter.getHashCount());
+            stats.put("memoryBytes", filter.getMemoryBytes());
+            stats.put("bytesPerMillionIds", bytesPerMillionIds());
+            stats.put("authoritative", properties.isAuthoritative());
+            stats.put("maxStaleness", properties.getMaxStaleness().toString());
+            if (ready) {
+                stats.put("ageMillis", (System.nanoTime() - loadedAt) / 1_000_000);
+            }
+            stats.put("rebuilds", rebuilds.sum());
+            stats.put("rejectedLookups", rejectedLookups.sum());
+            stats.put("missedIds", missedIds.sum());
+        }
+        return stats;
+    }
+
+    private CountingBloomFilter newFilter() {
+        return CountingBloomFilter.create(properties.getExpectedInsertions(), properties.getFalsePositiveRate());
+    }
+
+    private long bytesPerMillionIds() {
+        return filter.getMemoryBytes() * 1_000_000 / properties.getExpectedInsertions();
+    }
+}
@@ -0,0 +1,24 @@
+package com.bookstore.bookmanagement.membership;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Exposes {@link BookIdFilter} statistics at {@code /actuator/bookidfilter}.
+ */
+@Component
+@Endpoint(id = "bookidfilter")
+public class BookIdFilterEndpoint {
+
+    @Autowired
+    private BookIdFilter bookIdFilter;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return bookIdFilter.stats();
+    }
+}
@@ -0,0 +1,44 @@
+package com.bookstore.bookmanagement.membership;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "bookmanagement.book-id-filter")
+public class BookIdFilterProperties {
+
+    /**
+     * Whether lookups of definitely-unknown book IDs are answered without a database query.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long IDs missing from the filter are rejected without asking the database after the
+     * filter was loaded. The filter is rebuilt twice per period, so a book inserted elsewhere
+     * (another instance, an SQL load) is reported as unknown for at most this long. Zero turns
+     * rebuilds off and checks every miss against the database unless the filter is authoritative.
+     */
+    private Duration maxStaleness = Duration.ofMinutes(1);
+
+    /**
+     * Whether IDs missing from the filter are always rejected without asking the database,
+     * however stale the filter is. Only safe when every book is created through this instance;
+     * otherwise books inserted elsewhere would be reported as unknown.
+     */
+    private boolean authoritative = false;
+
+    /**
+     * Number of book IDs the filter is sized for; memory grows linearly with it.
+     */
+    private long expectedInsertions = 1_000_000;
+
+    /**
+     * Target false-positive rate at the expected number of IDs. With 4-bit counters 1% costs
+     * about 4.8 MB per million IDs, 0.1% about 7.2 MB.
+     */
+    private double falsePositiveRate = 0.01;
+}
@@ -0,0 +1,18 @@
+package com.bookstore.bookmanagement.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a batched adjustment: a new price and/or a change in stock for a book.
+ * Fields left null are not changed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookAdjustment {
+    private int bookId;
+    private Double price;
+    private Integer quantityDelta;
+}
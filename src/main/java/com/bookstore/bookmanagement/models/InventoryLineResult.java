@@ -0,0 +1,18 @@
+package com.bookstore.bookmanagement.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one {@link BookDetail} line of an order or return.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryLineResult {
+    private int bookId;
+    private InventoryLineStatus status;
+    private int requestedQuantity;
+    private int availableQuantity;
+}
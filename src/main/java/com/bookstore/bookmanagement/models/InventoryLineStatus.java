@@ -0,0 +1,7 @@
+package com.bookstore.bookmanagement.models;
+
+public enum InventoryLineStatus {
+    OK,
+    INSUFFICIENT_STOCK,
+    UNKNOWN_BOOK
+}
@@ -0,0 +1,30 @@
+package com.bookstore.bookmanagement.models;
+
+import com.bookstore.bookmanagement.entities.Book;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of an order or return. Requests are all-or-nothing: inventory is only changed
+ * when every line is OK, in which case {@code books} holds the updated books.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryResult {
+    private boolean successful;
+    private List<InventoryLineResult> lines;
+    private List<Book> books;
+
+    public boolean hasUnknownBooks() {
+        for (InventoryLineResult line : lines) {
+            if (line.getStatus() == InventoryLineStatus.UNKNOWN_BOOK) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
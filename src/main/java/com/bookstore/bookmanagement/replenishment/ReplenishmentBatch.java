@@ -0,0 +1,21 @@
+package com.bookstore.bookmanagement.replenishment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Suggestions emitted in one run, largest shortfall first. {@code lowStockBooks} counts
+ * every book below its reorder point, which can exceed the batch size.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplenishmentBatch {
+    private Instant generatedAt;
+    private int lowStockBooks;
+    private List<ReplenishmentSuggestion> suggestions;
+}
@@ -0,0 +1,33 @@
+package com.bookstore.bookmanagement.replenishment;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes the last batch of replenishment suggestions at {@code /actuator/replenishment}.
+ */
+@Component
+@Endpoint(id = "replenishment")
+public class ReplenishmentEndpoint {
+
+    @Autowired
+    private ReplenishmentTracker replenishmentTracker;
+
+    @Autowired
+    private ReplenishmentProperties properties;
+
+    @ReadOperation
+    public Map<String, Object> replenishment() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("enabled", properties.isEnabled());
+        report.put("interval", properties.getInterval().toString());
+        report.put("lowStockBooks", replenishmentTracker.lowStockBooks());
+        report.put("latestBatch", replenishmentTracker.latestBatch());
+        return report;
+    }
+}
@@ -0,0 +1,40 @@
+package com.bookstore.bookmanagement.replenishment;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "bookmanagement.replenishment")
+public class ReplenishmentProperties {
+
+    /**
+     * Whether books below their reorder point are tracked and suggested for replenishment.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How often a batch of suggestions is emitted.
+     */
+    private Duration interval = Duration.ofMinutes(5);
+
+    /**
+     * Maximum number of suggestions per batch; the books furthest below their reorder point come first.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * File each batch that differs from the previous one is appended to as one JSON line, or empty to only serve batches at
+     * {@code /actuator/replenishment}.
+     */
+    private String file = "data/replenishment/suggestions.jsonl";
+
+    /**
+     * Size of the suggestions file in bytes at which it is renamed to {@code <file>.1}, replacing
+     * the previous one, and a new file is started.
+     */
+    private long maxFileSize = 10 * 1024 * 1024;
+}
@@ -0,0 +1,24 @@
+package com.bookstore.bookmanagement.replenishment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A book whose stock is below its reorder point.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplenishmentSuggestion {
+    private int bookId;
+    private int quantity;
+    private int reorderPoint;
+    private int shortfall;
+    /**
+     * When the stock first dropped below the reorder point.
+     */
+    private Instant since;
+}
@@ -0,0 +1,223 @@
+package com.bookstore.bookmanagement.replenishment;
+
+import com.bookstore.bookmanagement.dao.BookRepository;
+import com.bookstore.bookmanagement.entities.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the set of books whose stock is below their reorder point and periodically emits
+ * replenishment suggestions from it.
+ * <p>
+ * The set is loaded with one query once the application is ready and afterwards kept up to
+ * date by {@code BookService} on every stock change, at the cost of one map update. Emitting
+ * a batch only visits the books in the set, never the whole catalogue: the largest shortfalls
+ * are picked with a heap bounded by the batch size.
+ * <p>
+ * The file only receives what changed: suggestions for books that entered the batch or whose
+ * shortfall changed since the last written batch. Unchanged batches are not written at all.
+ */
+@Component
+@Slf4j
+public class ReplenishmentTracker implements SchedulingConfigurer {
+
+    private static final Comparator<ReplenishmentSuggestion> BY_SHORTFALL =
+            Comparator.comparingInt(ReplenishmentSuggestion::getShortfall)
+                    .thenComparingInt(ReplenishmentSuggestion::getBookId);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ReplenishmentProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<Integer, ReplenishmentSuggestion> lowStock = new ConcurrentHashMap<>();
+    private volatile ReplenishmentBatch latestBatch;
+    // shortfall per book as of the last emitted batch, guarded by emit
+    private Map<Integer, Integer> writtenShortfalls = new HashMap<>();
+
+    public ReplenishmentTracker() {
+    }
+
+    ReplenishmentTracker(BookRepository bookRepository, ReplenishmentProperties properties, ObjectMapper objectMapper) {
+        this.bookRepository = bookRepository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<Book> books = bookRepository.findBelowReorderPoint();
+        for (Book book : books) {
+            apply(book.getId(), book.getQuantity(), book.getReorderPoint());
+        }
+        log.info("Replenishment tracker loaded {} low-stock books in {} ms",
+                books.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Records the current stock of a book. Inside a transaction the change is applied just
+     * before the transaction commits, so changes rolled back by the method itself are never
+     * suggested. The transaction still holds the row lock of the book at that point, so
+     * concurrent changes of one book are applied in commit order and the last one wins.
+     *
+     * @param book the book after its stock or reorder point changed
+     */
+    public void update(Book book) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int bookId = book.getId();
+        int quantity = book.getQuantity();
+        Integer reorderPoint = book.getReorderPoint();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    apply(bookId, quantity, reorderPoint);
+                }
+            });
+        } else {
+            apply(bookId, quantity, reorderPoint);
+        }
+    }
+
+    public void remove(int bookId) {
+        lowStock.remove(bookId);
+    }
+
+    /**
+     * Schedules {@link #emit} once per interval.
+     */
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        long intervalMillis = properties.getInterval().toMillis();
+        taskRegistrar.addFixedRateTask(new IntervalTask(this::emit, intervalMillis, intervalMillis));
+    }
+
+    /**
+     * Emits a batch of suggestions: keeps it for {@link #latestBatch()} and writes the
+     * suggestions that changed since the last written batch to the configured file.
+     */
+    public synchronized void emit() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        ReplenishmentBatch batch = currentBatch();
+        latestBatch = batch;
+
+        Map<Integer, Integer> shortfalls = new HashMap<>();
+        List<ReplenishmentSuggestion> changed = new ArrayList<>();
+        for (ReplenishmentSuggestion suggestion : batch.getSuggestions()) {
+            shortfalls.put(suggestion.getBookId(), suggestion.getShortfall());
+            Integer written = writtenShortfalls.get(suggestion.getBookId());
+            if (written == null || written != suggestion.getShortfall()) {
+                changed.add(suggestion);
+            }
+        }
+        // books that left the batch count as new when they come back
+        writtenShortfalls = shortfalls;
+        if (changed.isEmpty()) {
+            return;
+        }
+        log.info("Suggesting replenishment of {} of {} low-stock books, {} of them new or changed",
+                batch.getSuggestions().size(), batch.getLowStockBooks(), changed.size());
+        writeToFile(new ReplenishmentBatch(batch.getGeneratedAt(), batch.getLowStockBooks(), changed));
+    }
+
+    /**
+     * Builds a batch from the books currently below their reorder point.
+     *
+     * @return at most {@code batchSize} suggestions, largest shortfall first
+     */
+    public ReplenishmentBatch currentBatch() {
+        int batchSize = properties.getBatchSize();
+        PriorityQueue<ReplenishmentSuggestion> largest = new PriorityQueue<>(BY_SHORTFALL);
+        int lowStockBooks = 0;
+        for (ReplenishmentSuggestion suggestion : lowStock.values()) {
+            lowStockBooks++;
+            largest.offer(suggestion);
+            if (largest.size() > batchSize) {
+                largest.poll();
+            }
+        }
+        List<ReplenishmentSuggestion> suggestions = new ArrayList<>(largest);
+        suggestions.sort(BY_SHORTFALL.reversed());
+        return new ReplenishmentBatch(Instant.now(), lowStockBooks, suggestions);
+    }
+
+    /**
+     * Retrieves the last emitted batch, or null if none has been emitted yet.
+     */
+    public ReplenishmentBatch latestBatch() {
+        return latestBatch;
+    }
+
+    public int lowStockBooks() {
+        return lowStock.size();
+    }
+
+    private void apply(int bookId, int quantity, Integer reorderPoint) {
+        if (reorderPoint == null || quantity >= reorderPoint) {
+            lowStock.remove(bookId);
+            return;
+        }
+        // keep the time the book first dropped below its reorder point
+        lowStock.compute(bookId, (id, previous) -> new ReplenishmentSuggestion(id, quantity, reorderPoint,
+                reorderPoint - quantity, previous != null ? previous.getSince() : Instant.now()));
+    }
+
+    private void writeToFile(ReplenishmentBatch batch) {
+        String file = properties.getFile();
+        if (file == null || file.isEmpty()) {
+            return;
+        }
+        Path path = Paths.get(file);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            objectMapper.writeValue(line, batch);
+            line.write('\n');
+            if (Files.exists(path) && Files.size(path) + line.size() > properties.getMaxFileSize()) {
+                Files.move(path, Paths.get(file + ".1"), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.write(path, line.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.error("Failed to write replenishment suggestions to {}", path, e);
+        }
+    }
+}
@@ -1,16 +1,34 @@
 package com.bookstore.bookmanagement.services;
 
+import com.bookstore.bookmanagement.cache.BookResponseCache;
 import com.bookstore.bookmanagement.dao.BookRepository;
 import com.bookstore.bookmanagement.entities.Book;
+import com.bookstore.bookmanagement.journal.InventoryJournal;
+import com.bookstore.bookmanagement.membership.BookIdFilter;
+import com.bookstore.bookmanagement.models.BookAdjustment;
 import com.bookstore.bookmanagement.models.BookDetail;
+import com.bookstore.bookmanagement.models.InventoryLineResult;
+import com.bookstore.bookmanagement.models.InventoryLineStatus;
+import com.bookstore.bookmanagement.models.InventoryResult;
+import com.bookstore.bookmanagement.replenishment.ReplenishmentTracker;
+import com.bookstore.bookmanagement.telemetry.HotBookTracker;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 @Service
 @Slf4j
@@ -20,11 +38,30 @@ public class BookService {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private InventoryJournal inventoryJournal;
+
+    @Autowired
+    private BookResponseCache bookResponseCache;
+
+    @Autowired
+    private BookIdFilter bookIdFilter;
+
+    @Autowired
+    private HotBookTracker hotBookTracker;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReplenishmentTracker replenishmentTracker;
+
     /**
      * Retrieves all books.
      *
      * @return the list of books
      */
+    @Transactional(readOnly = true)
     public List<Book> getAllBooks() {
         return (List<Book>) bookRepository.findAll();
     }
@@ -35,8 +72,10 @@ public class BookService {
      * @param id the ID of the book to retrieve
      * @return the book if found, or null if not found
      */
+    @Transactional(readOnly = true)
     public Book getBookById(int id) {
-        Optional<Book> optionalBook = bookRepository.findById(id);
+        Optional<Book> optionalBook = findBook(id);
+        optionalBook.ifPresent(book -> hotBookTracker.recordRead(id));
         return optionalBook.orElse(null);
     }
 
@@ -47,7 +86,10 @@ public class BookService {
      * @return the created book
      */
     public Book createBook(Book book) {
-        return bookRepository.save(book);
+        Book createdBook = bookRepository.save(book);
+        bookIdFilter.add(createdBook.getId());
+        replenishmentTracker.update(createdBook);
+        return createdBook;
     }
 
     /**
@@ -57,73 +99,295 @@ public class BookService {
      * @param updatedBook the updated book details
      * @return the updated book if found, or null if not found
      */
+    @Transactional
     public Book updateBook(int id, Book updatedBook) {
-        Optional<Book> optionalBook = bookRepository.findById(id);
+        // locked like orders and returns, so the journalled delta is taken from the committed quantity
+        Optional<Book> optionalBook = bookRepository.findByIdForUpdate(id);
 
         if (optionalBook.isPresent()) {
+            int previousQuantity = optionalBook.get().getQuantity();
             updatedBook.setId(id);
-            return bookRepository.save(updatedBook);
+            Book savedBook = bookRepository.save(updatedBook);
+            bookResponseCache.evict(id);
+            replenishmentTracker.update(updatedBook);
+
+            int delta = updatedBook.getQuantity() - previousQuantity;
+            if (delta != 0) {
+                inventoryJournal.append(id, delta, updatedBook.getQuantity());
+            }
+            return savedBook;
         } else {
-            log.warn("Book not found with ID: {}", id);
+            log.debug("Book not found with ID: {}", id);
             return null;
         }
     }
 
-    public void returnBooks(List<BookDetail> bookDetailList) {
+    /**
+     * Applies a JSON Merge Patch (RFC 7396) to a book. Only the fields present in the patch
+     * change, and only the changed columns are written.
+     *
+     * @param id    the ID of the book to patch
+     * @param patch the merge patch, a JSON object
+     * @return the patched book if found, or null if not found
+     * @throws IllegalArgumentException if the patch is not an object, changes the ID,
+     *                                  removes a required field or makes the stock negative
+     */
+    @Transactional
+    public Book patchBook(int id, JsonNode patch) {
+        if (!patch.isObject()) {
+            throw new IllegalArgumentException("Merge patch must be a JSON object");
+        }
+        if (patch.has("id") && patch.get("id").asInt() != id) {
+            throw new IllegalArgumentException("Merge patch must not change the book ID");
+        }
+        for (String field : new String[]{"title", "price", "quantity"}) {
+            if (patch.has(field) && patch.get(field).isNull()) {
+                throw new IllegalArgumentException("Merge patch must not remove " + field);
+            }
+        }
+
+        Map<Integer, Book> books = lockBooks(new TreeSet<>(Collections.singleton(id)));
+        Book book = books.get(id);
+        if (book == null) {
+            log.debug("Book not found with ID: {}", id);
+            return null;
+        }
+
+        int previousQuantity = book.getQuantity();
+        try {
+            objectMapper.readerForUpdating(book).readValue(patch);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid merge patch: " + e.getMessage(), e);
+        }
+        if (book.getQuantity() < 0) {
+            throw new IllegalArgumentException("Merge patch must not make the stock negative");
+        }
+
+        int delta = book.getQuantity() - previousQuantity;
+        if (delta != 0) {
+            return saveQuantityChange(book, delta);
+        }
+        Book savedBook = bookRepository.save(book);
+        bookResponseCache.evict(id);
+        replenishmentTracker.update(book);
+        return savedBook;
+    }
+
+    /**
+     * Applies price and stock adjustments to many books in one transaction.
+     * Nothing is changed unless every book exists and no stock would become negative.
+     *
+     * @param adjustments the new prices and stock changes, per book
+     * @return the per-line outcome, with the updated books if successful
+     */
+    @Transactional
+    public InventoryResult adjustBooks(List<BookAdjustment> adjustments) {
+        SortedSet<Integer> bookIds = new TreeSet<>();
+        for (BookAdjustment adjustment : adjustments) {
+            bookIds.add(adjustment.getBookId());
+        }
+        Map<Integer, Book> books = lockBooks(bookIds);
+
+        // validate, counting every line for books that appear more than once
+        List<InventoryLineResult> lines = new ArrayList<>(adjustments.size());
+        Map<Integer, Integer> resultingQuantities = new HashMap<>();
+        boolean successful = true;
+        for (BookAdjustment adjustment : adjustments) {
+            int bookId = adjustment.getBookId();
+            int quantityDelta = adjustment.getQuantityDelta() == null ? 0 : adjustment.getQuantityDelta();
+            Book book = books.get(bookId);
+            if (book == null) {
+                lines.add(new InventoryLineResult(bookId, InventoryLineStatus.UNKNOWN_BOOK, quantityDelta, 0));
+                successful = false;
+                continue;
+            }
+
+            int resultingQuantity = resultingQuantities.getOrDefault(bookId, book.getQuantity()) + quantityDelta;
+            resultingQuantities.put(bookId, resultingQuantity);
+            InventoryLineStatus status = resultingQuantity < 0
+                    ? InventoryLineStatus.INSUFFICIENT_STOCK
+                    : InventoryLineStatus.OK;
+            lines.add(new InventoryLineResult(bookId, status, quantityDelta, book.getQuantity()));
+            successful &= status == InventoryLineStatus.OK;
+        }
+        if (!successful) {
+            return new InventoryResult(false, lines, Collections.emptyList());
+        }
+
+        List<Book> adjustedBooks = new ArrayList<>(adjustments.size());
+        for (BookAdjustment adjustment : adjustments) {
+            Book book = books.get(adjustment.getBookId());
+            if (adjustment.getPrice() != null) {
+                book.setPrice(adjustment.getPrice());
+            }
+            int quantityDelta = adjustment.getQuantityDelta() == null ? 0 : adjustment.getQuantityDelta();
+            if (quantityDelta != 0) {
+                book.setQuantity(book.getQuantity() + quantityDelta);
+                adjustedBooks.add(saveQuantityChange(book, quantityDelta));
+            } else {
+                adjustedBooks.add(bookRepository.save(book));
+                bookResponseCache.evict(book.getId());
+            }
+        }
+
+        return new InventoryResult(true, lines, adjustedBooks);
+    }
+
+    /**
+     * Adds books back to the inventory when an order is cancelled.
+     * Nothing is changed unless every book exists.
+     *
+     * @param bookDetailList the books and quantities to add back
+     * @return the per-line outcome, with the updated books if successful
+     */
+    @Transactional
+    public InventoryResult returnBooks(List<BookDetail> bookDetailList) {
+        Map<Integer, Book> books = lockBooks(bookDetailList);
 
         // validate list of books
+        List<InventoryLineResult> lines = new ArrayList<>(bookDetailList.size());
+        boolean successful = true;
         for(BookDetail bookDetail: bookDetailList) {
             int bookId = bookDetail.getBookId();
-            Optional<Book> optionalBook = bookRepository.findById(bookId);
-            if(optionalBook.isEmpty()) {
-                log.warn("Book not found with ID: {}", bookId);
-                throw new IllegalArgumentException("Failed to retrieve book with ID: " + bookId);
+            Book book = books.get(bookId);
+            if(book == null) {
+                lines.add(new InventoryLineResult(bookId, InventoryLineStatus.UNKNOWN_BOOK,
+                        bookDetail.getOrderedQuantity(), 0));
+                successful = false;
+            } else {
+                lines.add(new InventoryLineResult(bookId, InventoryLineStatus.OK,
+                        bookDetail.getOrderedQuantity(), book.getQuantity()));
             }
         }
+        if (!successful) {
+            return new InventoryResult(false, lines, Collections.emptyList());
+        }
 
         // update inventory, add back books
+        List<Book> returnedBooks = new ArrayList<>(bookDetailList.size());
         for(BookDetail bookDetail: bookDetailList) {
-            Book book = bookRepository.findById(bookDetail.getBookId()).get();
+            Book book = books.get(bookDetail.getBookId());
             int currentBookQuantity = book.getQuantity();
             int orderedBookQuantity = bookDetail.getOrderedQuantity();
 
             book.setQuantity(currentBookQuantity + orderedBookQuantity);
-            updateBook(book.getId(), book);
+            returnedBooks.add(saveQuantityChange(book, orderedBookQuantity));
         }
+
+        return new InventoryResult(true, lines, returnedBooks);
     }
 
-    public List<Book> orderBooks(List<BookDetail> bookDetailList) {
+    /**
+     * Issues books from the inventory when an order is placed.
+     * Nothing is changed unless every book exists and has enough stock.
+     *
+     * @param bookDetailList the books and quantities ordered
+     * @return the per-line outcome, with the updated books if successful
+     */
+    @Transactional
+    public InventoryResult orderBooks(List<BookDetail> bookDetailList) {
+        Map<Integer, Book> books = lockBooks(bookDetailList);
 
-        // validate if all books are in stock and if required quantity can be met
+        // validate if all books are in stock and if required quantity can be met,
+        // counting every line for books that appear more than once
+        List<InventoryLineResult> lines = new ArrayList<>(bookDetailList.size());
+        Map<Integer, Integer> remainingQuantities = new HashMap<>();
+        boolean successful = true;
         for(BookDetail bookDetail: bookDetailList) {
 
             int bookId = bookDetail.getBookId();
-            Optional<Book> optionalBook = bookRepository.findById(bookId);
-            if(optionalBook.isEmpty()) {
-                log.warn("Book not found with ID: {}", bookId);
-                throw new IllegalArgumentException("Failed to retrieve book with ID: " + bookId);
+            Book book = books.get(bookId);
+            if(book == null) {
+                lines.add(new InventoryLineResult(bookId, InventoryLineStatus.UNKNOWN_BOOK,
+                        bookDetail.getOrderedQuantity(), 0));
+                successful = false;
+                continue;
             }
 
-            Book book = optionalBook.get();
-            if(book.getQuantity() < bookDetail.getOrderedQuantity()){
-                throw new IllegalArgumentException("Book with ID: " + bookId + " is not in stock.");
-            }
+            int remainingQuantity = remainingQuantities.getOrDefault(bookId, book.getQuantity())
+                    - bookDetail.getOrderedQuantity();
+            remainingQuantities.put(bookId, remainingQuantity);
+            InventoryLineStatus status = remainingQuantity < 0
+                    ? InventoryLineStatus.INSUFFICIENT_STOCK
+                    : InventoryLineStatus.OK;
+            lines.add(new InventoryLineResult(bookId, status, bookDetail.getOrderedQuantity(), book.getQuantity()));
+            successful &= status == InventoryLineStatus.OK;
+        }
+        if (!successful) {
+            return new InventoryResult(false, lines, Collections.emptyList());
         }
 
         //process the order, update inventory
-        List<Book> orderedBookDetails = new ArrayList<>();
+        List<Book> orderedBookDetails = new ArrayList<>(bookDetailList.size());
 
         for(BookDetail bookDetail: bookDetailList) {
-            Book book = bookRepository.findById(bookDetail.getBookId()).get();
+            Book book = books.get(bookDetail.getBookId());
             int currentBookQuantity = book.getQuantity();
             int orderedBookQuantity = bookDetail.getOrderedQuantity();
 
             book.setQuantity(currentBookQuantity - orderedBookQuantity);
-            Book updatedBook = updateBook(book.getId(), book);
+            Book updatedBook = saveQuantityChange(book, -orderedBookQuantity);
             orderedBookDetails.add(updatedBook);
         }
 
-        return orderedBookDetails;
+        return new InventoryResult(true, lines, orderedBookDetails);
+    }
+
+    /**
+     * Loads the books of an order or return and locks their rows until the transaction ends.
+     */
+    private Map<Integer, Book> lockBooks(List<BookDetail> bookDetailList) {
+        SortedSet<Integer> bookIds = new TreeSet<>();
+        for (BookDetail bookDetail : bookDetailList) {
+            bookIds.add(bookDetail.getBookId());
+        }
+        return lockBooks(bookIds);
+    }
+
+    /**
+     * Loads books and locks their rows until the transaction ends, so concurrent requests
+     * cannot overwrite each other's changes. Rows are locked in ascending ID order, which
+     * keeps concurrent requests from deadlocking. Unknown IDs are left out of the result.
+     */
+    private Map<Integer, Book> lockBooks(SortedSet<Integer> bookIds) {
+        Map<Integer, Book> books = new HashMap<>();
+        for (int bookId : bookIds) {
+            if (bookIdFilter.isDefinitelyAbsent(bookId)) {
+                continue;
+            }
+            long start = System.nanoTime();
+            Optional<Book> optionalBook = bookRepository.findByIdForUpdate(bookId);
+            if (optionalBook.isPresent()) {
+                hotBookTracker.recordWrite(bookId, System.nanoTime() - start);
+                bookIdFilter.found(bookId);
+                books.put(bookId, optionalBook.get());
+            }
+        }
+        return books;
+    }
+
+    /**
+     * Looks a book up, skipping the database for IDs the book ID filter knows do not exist.
+     */
+    private Optional<Book> findBook(int id) {
+        if (bookIdFilter.isDefinitelyAbsent(id)) {
+            return Optional.empty();
+        }
+        Optional<Book> optionalBook = bookRepository.findById(id);
+        optionalBook.ifPresent(book -> bookIdFilter.found(id));
+        return optionalBook;
+    }
+
+    /**
+     * Saves a book whose quantity was changed by {@code delta}, records the change in the inventory
+     * journal and tells the replenishment tracker about the new stock.
+     */
+    private Book saveQuantityChange(Book book, int delta) {
+        Book savedBook = bookRepository.save(book);
+        bookResponseCache.evict(book.getId());
+        inventoryJournal.append(book.getId(), delta, book.getQuantity());
+        replenishmentTracker.update(book);
+        return savedBook;
     }
 
     /**
@@ -132,14 +396,18 @@ public class BookService {
      * @param id the ID of the book to delete
      * @return true if the book is deleted, false if not found
      */
+    @Transactional
     public boolean deleteBook(int id) {
         Optional<Book> optionalBook = bookRepository.findById(id);
 
         if (optionalBook.isPresent()) {
             bookRepository.delete(optionalBook.get());
+            bookResponseCache.evict(id);
+            bookIdFilter.remove(id);
+            replenishmentTracker.remove(id);
             return true;
         } else {
-            log.warn("Book not found with ID: {}", id);
+            log.debug("Book not found with ID: {}", id);
             return false;
         }
     }
@@ -0,0 +1,21 @@
+package com.bookstore.bookmanagement.telemetry;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Traffic on one book within a measurement window. Counts are Count-Min estimates and may
+ * be slightly high. Writes are orders and returns touching the book; write time is the time
+ * they spent locking and loading its row, which is dominated by waits for the row lock.
+ */
+@Data
+@AllArgsConstructor
+public class HotBook {
+    private int bookId;
+    private long reads;
+    private long writes;
+    private double readsPerSecond;
+    private double writesPerSecond;
+    private double writeTimeMillis;
+    private double averageWriteMicros;
+}
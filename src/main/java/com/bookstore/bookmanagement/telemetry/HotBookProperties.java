@@ -0,0 +1,38 @@
+package com.bookstore.bookmanagement.telemetry;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "bookmanagement.hot-books")
+public class HotBookProperties {
+
+    /**
+     * Whether reads and writes per book are tracked.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Length of one measurement window.
+     */
+    private Duration window = Duration.ofMinutes(1);
+
+    /**
+     * Number of hottest books tracked per window.
+     */
+    private int topK = 32;
+
+    /**
+     * Counters per Count-Min sketch row; more counters mean smaller overestimates.
+     */
+    private int sketchWidth = 2048;
+
+    /**
+     * Rows per Count-Min sketch; more rows mean a lower chance of an overestimate.
+     */
+    private int sketchDepth = 4;
+}
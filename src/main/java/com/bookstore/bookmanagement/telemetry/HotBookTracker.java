@@ -0,0 +1,168 @@
+package com.bookstore.bookmanagement.telemetry;
+
+import com.bookstore.bookmanagement.utils.CountMinSketch;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming heavy-hitters tracker for book traffic.
+ * <p>
+ * Reads, writes and write time per book are counted in Count-Min sketches, and the books
+ * with the most traffic are kept in a bounded candidate set, so memory and per-request cost
+ * stay constant however many titles there are. Counting happens in tumbling windows; the
+ * last completed window is kept for reporting next to the one in progress.
+ */
+@Component
+public class HotBookTracker implements SchedulingConfigurer {
+
+    @Autowired
+    private HotBookProperties properties;
+
+    private volatile Window current;
+    private volatile List<HotBook> previousHotBooks = Collections.emptyList();
+
+    public HotBookTracker() {
+    }
+
+    HotBookTracker(HotBookProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void init() {
+        current = new Window(properties, System.nanoTime());
+    }
+
+    public void recordRead(int bookId) {
+        if (properties.isEnabled()) {
+            current.recordRead(bookId);
+        }
+    }
+
+    public void recordWrite(int bookId, long writeNanos) {
+        if (properties.isEnabled()) {
+            current.recordWrite(bookId, writeNanos);
+        }
+    }
+
+    /**
+     * Schedules {@link #rotate} once per window.
+     */
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        long windowMillis = properties.getWindow().toMillis();
+        taskRegistrar.addFixedRateTask(new IntervalTask(this::rotate, windowMillis, windowMillis));
+    }
+
+    /**
+     * Closes the current window and starts a new one.
+     */
+    public void rotate() {
+        long now = System.nanoTime();
+        Window closed = current;
+        current = new Window(properties, now);
+        previousHotBooks = closed.hotBooks(now);
+    }
+
+    /**
+     * Retrieves the hottest books of the window in progress.
+     *
+     * @param limit maximum number of books to return; negative limits return nothing
+     * @return books ordered by reads plus writes, hottest first
+     */
+    public List<HotBook> currentHotBooks(int limit) {
+        List<HotBook> hotBooks = current.hotBooks(System.nanoTime());
+        return top(hotBooks, limit);
+    }
+
+    /**
+     * Retrieves the hottest books of the last completed window.
+     *
+     * @param limit maximum number of books to return; negative limits return nothing
+     * @return books ordered by reads plus writes, hottest first
+     */
+    public List<HotBook> previousHotBooks(int limit) {
+        List<HotBook> hotBooks = previousHotBooks;
+        return top(hotBooks, limit);
+    }
+
+    private static List<HotBook> top(List<HotBook> hotBooks, int limit) {
+        return hotBooks.subList(0, Math.max(0, Math.min(limit, hotBooks.size())));
+    }
+
+    private static final class Window {
+        private final long startNanos;
+        private final int capacity;
+        private final CountMinSketch reads;
+        private final CountMinSketch writes;
+        private final CountMinSketch writeNanos;
+        private final Map<Integer, Long> candidates = new ConcurrentHashMap<>();
+        private volatile long minCandidateHeat;
+
+        private Window(HotBookProperties properties, long startNanos) {
+            this.startNanos = startNanos;
+            this.capacity = properties.getTopK();
+            this.reads = new CountMinSketch(properties.getSketchWidth(), properties.getSketchDepth());
+            this.writes = new CountMinSketch(properties.getSketchWidth(), properties.getSketchDepth());
+            this.writeNanos = new CountMinSketch(properties.getSketchWidth(), properties.getSketchDepth());
+        }
+
+        private void recordRead(int bookId) {
+            offer(bookId, reads.add(bookId, 1) + writes.estimate(bookId));
+        }
+
+        private void recordWrite(int bookId, long nanos) {
+            writeNanos.add(bookId, nanos);
+            offer(bookId, reads.estimate(bookId) + writes.add(bookId, 1));
+        }
+
+        private void offer(int bookId, long heat) {
+            if (candidates.containsKey(bookId)) {
+                candidates.put(bookId, heat);
+                return;
+            }
+            if (candidates.size() >= capacity && heat <= minCandidateHeat) {
+                return;
+            }
+
+            // a new book enters the candidate set: rare compared to updates, so it may scan
+            synchronized (candidates) {
+                candidates.put(bookId, heat);
+                if (candidates.size() > capacity) {
+                    Map.Entry<Integer, Long> coldest = Collections.min(candidates.entrySet(), Map.Entry.comparingByValue());
+                    candidates.remove(coldest.getKey());
+                }
+                minCandidateHeat = candidates.size() < capacity
+                        ? 0
+                        : Collections.min(candidates.values());
+            }
+        }
+
+        private List<HotBook> hotBooks(long nowNanos) {
+            double seconds = Math.max(1e-3, (nowNanos - startNanos) / 1e9);
+            List<HotBook> hotBooks = new ArrayList<>(candidates.size());
+            for (Integer bookId : candidates.keySet()) {
+                long bookReads = reads.estimate(bookId);
+                long bookWrites = writes.estimate(bookId);
+                long bookWriteNanos = writeNanos.estimate(bookId);
+                hotBooks.add(new HotBook(bookId, bookReads, bookWrites,
+                        bookReads / seconds, bookWrites / seconds,
+                        bookWriteNanos / 1e6,
+                        bookWrites == 0 ? 0 : bookWriteNanos / 1e3 / bookWrites));
+            }
+            hotBooks.sort(Comparator.comparingLong((HotBook hotBook) -> hotBook.getReads() + hotBook.getWrites()).reversed());
+            return hotBooks;
+        }
+    }
+}
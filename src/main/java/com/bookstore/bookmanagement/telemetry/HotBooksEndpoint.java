@@ -0,0 +1,38 @@
+package com.bookstore.bookmanagement.telemetry;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes the hottest books at {@code /actuator/hotbooks?limit=N}, for the window in
+ * progress and the last completed one.
+ */
+@Component
+@Endpoint(id = "hotbooks")
+public class HotBooksEndpoint {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    @Autowired
+    private HotBookTracker hotBookTracker;
+
+    @Autowired
+    private HotBookProperties properties;
+
+    @ReadOperation
+    public Map<String, Object> hotBooks(@Nullable Integer limit) {
+        int topN = limit != null ? limit : DEFAULT_LIMIT;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("enabled", properties.isEnabled());
+        report.put("window", properties.getWindow().toString());
+        report.put("current", hotBookTracker.currentHotBooks(topN));
+        report.put("previous", hotBookTracker.previousHotBooks(topN));
+        return report;
+    }
+}
@@ -0,0 +1,53 @@
+package com.bookstore.bookmanagement.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min sketch over int keys: approximate per-key totals in fixed memory. Estimates
+ * never undercount; they overcount by at most {@code 2 * total / width} with probability
+ * {@code 1 - 2^-depth}. Updates are lock-free.
+ */
+public class CountMinSketch {
+
+    private final AtomicLongArray counters;
+    private final int width;
+    private final int depth;
+
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Width and depth must be positive");
+        }
+        this.counters = new AtomicLongArray(width * depth);
+        this.width = width;
+        this.depth = depth;
+    }
+
+    /**
+     * Adds an amount to a key.
+     *
+     * @return the new estimate for the key
+     */
+    public long add(int key, long amount) {
+        long estimate = Long.MAX_VALUE;
+        long hash = Hashing.mix(key);
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.addAndGet(index(row, hash), amount));
+        }
+        return estimate;
+    }
+
+    public long estimate(int key) {
+        long estimate = Long.MAX_VALUE;
+        long hash = Hashing.mix(key);
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, hash)));
+        }
+        return estimate;
+    }
+
+    private int index(int row, long hash) {
+        // derive one hash per row from two halves of a 64-bit hash
+        int rowHash = (int) hash + row * (int) (hash >>> 32);
+        return row * width + Math.floorMod(rowHash, width);
+    }
+}
@@ -0,0 +1,127 @@
+package com.bookstore.bookmanagement.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counting Bloom filter over int keys, with 4-bit counters packed sixteen to a long.
+ * <p>
+ * {@link #mightContain} never returns false for a key that was added and not removed; it
+ * returns true for other keys with roughly the configured false-positive rate. Counters
+ * saturate at 15 and are then never decremented, which can only add false positives.
+ * Only keys that were added may be removed, otherwise counters of other keys could be
+ * cleared. All operations are lock-free.
+ */
+public class CountingBloomFilter {
+
+    private static final int COUNTER_BITS = 4;
+    private static final int COUNTERS_PER_WORD = Long.SIZE / COUNTER_BITS;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    private final AtomicLongArray words;
+    private final long counterCount;
+    private final int hashCount;
+
+    public CountingBloomFilter(long counterCount, int hashCount) {
+        if (counterCount <= 0 || hashCount <= 0) {
+            throw new IllegalArgumentException("Counter and hash counts must be positive");
+        }
+        long wordCount = (counterCount + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD;
+        if (wordCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many counters: " + counterCount);
+        }
+        this.words = new AtomicLongArray((int) wordCount);
+        this.counterCount = counterCount;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Sizes a filter for the expected number of keys and false-positive rate.
+     */
+    public static CountingBloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Expected insertions must be positive and the false-positive rate in (0, 1)");
+        }
+        long counters = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int hashes = Math.max(1, (int) Math.round((double) counters / expectedInsertions * Math.log(2)));
+        return new CountingBloomFilter(counters, hashes);
+    }
+
+    public void add(int key) {
+        long h1 = Hashing.mix(key);
+        long h2 = Hashing.mix(h1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            increment(Math.floorMod(h1 + i * h2, counterCount));
+        }
+    }
+
+    public void remove(int key) {
+        long h1 = Hashing.mix(key);
+        long h2 = Hashing.mix(h1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            decrement(Math.floorMod(h1 + i * h2, counterCount));
+        }
+    }
+
+    public boolean mightContain(int key) {
+        long h1 = Hashing.mix(key);
+        long h2 = Hashing.mix(h1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            if (counter(Math.floorMod(h1 + i * h2, counterCount)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getCounterCount() {
+        return counterCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    public long getMemoryBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    /**
+     * Estimates the false-positive rate once the filter holds the given number of keys.
+     */
+    public double expectedFalsePositiveRate(long insertions) {
+        return Math.pow(1 - Math.exp(-(double) hashCount * insertions / counterCount), hashCount);
+    }
+
+    private long counter(long index) {
+        return (words.get((int) (index / COUNTERS_PER_WORD)) >>> shift(index)) & COUNTER_MASK;
+    }
+
+    private void increment(long index) {
+        int word = (int) (index / COUNTERS_PER_WORD);
+        int shift = shift(index);
+        while (true) {
+            long current = words.get(word);
+            if (((current >>> shift) & COUNTER_MASK) == COUNTER_MASK
+                    || words.compareAndSet(word, current, current + (1L << shift))) {
+                return;
+            }
+        }
+    }
+
+    private void decrement(long index) {
+        int word = (int) (index / COUNTERS_PER_WORD);
+        int shift = shift(index);
+        while (true) {
+            long current = words.get(word);
+            long counter = (current >>> shift) & COUNTER_MASK;
+            if (counter == 0 || counter == COUNTER_MASK
+                    || words.compareAndSet(word, current, current - (1L << shift))) {
+                return;
+            }
+        }
+    }
+
+    private static int shift(long index) {
+        return (int) (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+    }
+}
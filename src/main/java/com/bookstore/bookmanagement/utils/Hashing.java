@@ -0,0 +1,23 @@
+package com.bookstore.bookmanagement.utils;
+
+/**
+ * Hash functions shared by the probabilistic structures in this package.
+ */
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * MurmurHash3 64-bit finalizer: spreads every input bit over the whole result, so
+     * sequential IDs land in unrelated counters.
+     */
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,58 @@
+package com.bookstore.bookmanagement.utils;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs at most one message per interval and counts the rest, for log statements on paths
+ * that can fire thousands of times per second.
+ */
+public class RateLimitedLogger {
+
+    private final Logger logger;
+    private final long intervalNanos;
+    private final AtomicLong nextLogTime;
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public RateLimitedLogger(Logger logger, Duration interval) {
+        this.logger = logger;
+        this.intervalNanos = interval.toNanos();
+        this.nextLogTime = new AtomicLong(System.nanoTime());
+    }
+
+    public void warn(String format, Object arg) {
+        if (acquire()) {
+            logger.warn(format, arg);
+            logSuppressed();
+        }
+    }
+
+    public void warn(String format, Object arg1, Object arg2) {
+        if (acquire()) {
+            logger.warn(format, arg1, arg2);
+            logSuppressed();
+        }
+    }
+
+    private boolean acquire() {
+        if (!logger.isWarnEnabled()) {
+            return false;
+        }
+        long now = System.nanoTime();
+        long next = nextLogTime.get();
+        if (now - next < 0 || !nextLogTime.compareAndSet(next, now + intervalNanos)) {
+            suppressed.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private void logSuppressed() {
+        long count = suppressed.getAndSet(0);
+        if (count > 0) {
+            logger.warn("{} similar messages suppressed in the last {} ms", count, intervalNanos / 1_000_000);
+        }
+    }
+}
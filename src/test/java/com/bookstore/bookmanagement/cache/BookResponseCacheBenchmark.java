@@ -0,0 +1,114 @@
+package com.bookstore.bookmanagement.cache;
+
+import com.bookstore.bookmanagement.entities.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares per-response allocation and time of Jackson serialization against writing the
+ * cached encoding. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class BookResponseCacheBenchmark {
+
+    private static final int ITERATIONS = 1_000_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final BookResponseCache bookResponseCache = new BookResponseCache(objectMapper, new ResponseCacheProperties());
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void singleBook() throws IOException {
+        Book book = new Book(1, "The Pragmatic Programmer", "Andrew Hunt, David Thomas",
+                "From journeyman to master: practical advice on software craftsmanship.", 39.99, 120);
+        OutputStream sink = new DiscardingOutputStream();
+
+        Result jackson = measure(() -> objectMapper.writeValue(sink, book));
+        Result cached = measure(() -> sink.write(bookResponseCache.json(book)));
+
+        report("GET /books/{id}", jackson, cached);
+        assertTrue(cached.bytesPerOp < jackson.bytesPerOp);
+    }
+
+    @Test
+    void listOf100Books() throws IOException {
+        List<Book> books = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            books.add(new Book(i, "Book " + i, "Author " + i, "Description of book " + i, 10.0 + i, i));
+        }
+        OutputStream sink = new DiscardingOutputStream();
+
+        Result jackson = measure(() -> objectMapper.writeValue(sink, books), ITERATIONS / 100);
+        Result cached = measure(() -> BookResponseCache.writeJsonArray(bookResponseCache.jsonFragments(books), sink),
+                ITERATIONS / 100);
+
+        report("GET /books (100 books)", jackson, cached);
+        assertTrue(cached.bytesPerOp < jackson.bytesPerOp);
+    }
+
+    private Result measure(Operation operation) throws IOException {
+        return measure(operation, ITERATIONS);
+    }
+
+    private Result measure(Operation operation, int iterations) throws IOException {
+        for (int i = 0; i < iterations / 5; i++) {
+            operation.run();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Result((double) allocated / iterations, (double) elapsed / iterations);
+    }
+
+    private static void report(String scenario, Result jackson, Result cached) {
+        System.out.printf("%-24s jackson: %8.1f B/op %8.1f ns/op | cached: %8.1f B/op %8.1f ns/op%n",
+                scenario, jackson.bytesPerOp, jackson.nanosPerOp, cached.bytesPerOp, cached.nanosPerOp);
+    }
+
+    /**
+     * Stand-in for the servlet output stream; unlike {@code OutputStream.nullOutputStream()} it
+     * survives Jackson closing it after each value.
+     */
+    private static final class DiscardingOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run() throws IOException;
+    }
+
+    private static final class Result {
+        private final double bytesPerOp;
+        private final double nanosPerOp;
+
+        private Result(double bytesPerOp, double nanosPerOp) {
+            this.bytesPerOp = bytesPerOp;
+            this.nanosPerOp = nanosPerOp;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.bookstore.bookmanagement.cache;
+
+import com.bookstore.bookmanagement.entities.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ResponseCacheProperties properties;
+
+    private BookResponseCache bookResponseCache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ResponseCacheProperties();
+        bookResponseCache = new BookResponseCache(objectMapper, properties);
+    }
+
+    @Test
+    void json_SameBookState_ReturnsCachedBytes() throws IOException {
+        Book book = new Book(1, "Book 1", "Author 1", "Description 1", 10.0, 5);
+
+        byte[] first = bookResponseCache.json(book);
+        byte[] second = bookResponseCache.json(new Book(1, "Book 1", "Author 1", "Description 1", 10.0, 5));
+
+        assertSame(first, second);
+        assertArrayEquals(objectMapper.writeValueAsBytes(book), first);
+    }
+
+    @Test
+    void json_ChangedBook_ReencodesInsteadOfServingStaleBytes() throws IOException {
+        Book book = new Book(1, "Book 1", "Author 1", "Description 1", 10.0, 5);
+        bookResponseCache.json(book);
+
+        book.setQuantity(4);
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(book), bookResponseCache.json(book));
+    }
+
+    @Test
+    void evict_RemovesEntry() {
+        bookResponseCache.json(new Book(1, "Book 1", "Author 1", "Description 1", 10.0, 5));
+
+        bookResponseCache.evict(1);
+
+        assertEquals(0, bookResponseCache.size());
+    }
+
+    @Test
+    void json_CacheFull_DropsLeastRecentlyUsedBook() {
+        properties.setMaxEntries(2);
+        Book first = new Book(1, "Book 1", "Author 1", "Description 1", 10.0, 5);
+        Book second = new Book(2, "Book 2", "Author 2", "Description 2", 15.0, 3);
+        byte[] firstBytes = bookResponseCache.json(first);
+        byte[] secondBytes = bookResponseCache.json(second);
+
+        // touching the first book makes the second one the least recently used
+        bookResponseCache.json(first);
+        bookResponseCache.json(new Book(3, "Book 3", "Author 3", "Description 3", 20.0, 1));
+
+        assertEquals(2, bookResponseCache.size());
+        assertSame(firstBytes, bookResponseCache.json(first));
+        assertNotSame(secondBytes, bookResponseCache.json(second));
+    }
+
+    @Test
+    void gzippedJson_DecompressesToJson() throws IOException {
+        Book book = new Book(1, "Book 1", "Author 1", "Description 1", 10.0, 5);
+
+        byte[] gzipped = bookResponseCache.gzippedJson(book);
+
+        try (GZIPInputStream gzipStream = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertArrayEquals(bookResponseCache.json(book), gzipStream.readAllBytes());
+        }
+    }
+
+    @Test
+    void writeJsonArray_MatchesJacksonListEncoding() throws IOException {
+        List<Book> books = List.of(
+                new Book(1, "Book 1", "Author 1", "Description 1", 10.0, 5),
+                new Book(2, "Book 2", "Author 2", "Description 2", 15.0, 3));
+
+        byte[][] fragments = bookResponseCache.jsonFragments(books);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        BookResponseCache.writeJsonArray(fragments, outputStream);
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(books), outputStream.toByteArray());
+        assertEquals(outputStream.size(), BookResponseCache.jsonArrayLength(fragments));
+    }
+}
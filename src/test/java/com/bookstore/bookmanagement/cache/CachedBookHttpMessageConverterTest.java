@@ -0,0 +1,89 @@
+package com.bookstore.bookmanagement.cache;
+
+import com.bookstore.bookmanagement.entities.Book;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachedBookHttpMessageConverterTest {
+
+    private static final byte[] JSON = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] GZIPPED = {31, -117, 8};
+
+    private final Book book = new Book(1, "Book 1", "Author 1", "Description 1", 10.0, 5);
+
+    private BookResponseCache bookResponseCache;
+
+    private CachedBookHttpMessageConverter converter;
+
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        bookResponseCache = mock(BookResponseCache.class);
+        when(bookResponseCache.isEnabled()).thenReturn(true);
+        when(bookResponseCache.json(book)).thenReturn(JSON);
+        when(bookResponseCache.gzippedJson(book)).thenReturn(GZIPPED);
+        converter = new CachedBookHttpMessageConverter(bookResponseCache);
+
+        request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void write_GzipClient_SendsGzippedBytesAndVary() throws IOException {
+        when(bookResponseCache.isGzipEnabled()).thenReturn(true);
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+
+        MockHttpOutputMessage outputMessage = write();
+
+        assertArrayEquals(GZIPPED, outputMessage.getBodyAsBytes());
+        assertEquals("gzip", outputMessage.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, outputMessage.getHeaders().getFirst(HttpHeaders.VARY));
+    }
+
+    @Test
+    void write_PlainClientWithGzipEnabled_SendsJsonAndVary() throws IOException {
+        when(bookResponseCache.isGzipEnabled()).thenReturn(true);
+
+        MockHttpOutputMessage outputMessage = write();
+
+        assertArrayEquals(JSON, outputMessage.getBodyAsBytes());
+        assertNull(outputMessage.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, outputMessage.getHeaders().getFirst(HttpHeaders.VARY));
+    }
+
+    @Test
+    void write_GzipDisabled_SendsJsonWithoutVary() throws IOException {
+        when(bookResponseCache.isGzipEnabled()).thenReturn(false);
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+        MockHttpOutputMessage outputMessage = write();
+
+        assertArrayEquals(JSON, outputMessage.getBodyAsBytes());
+        assertNull(outputMessage.getHeaders().getFirst(HttpHeaders.VARY));
+    }
+
+    private MockHttpOutputMessage write() throws IOException {
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(book, Book.class, MediaType.APPLICATION_JSON, outputMessage);
+        return outputMessage;
+    }
+}
@@ -1,34 +1,88 @@
 package com.bookstore.bookmanagement.controllers;
 
+import com.bookstore.bookmanagement.cache.BookResponseCache;
+import com.bookstore.bookmanagement.config.WebConfig;
 import com.bookstore.bookmanagement.entities.Book;
+import com.bookstore.bookmanagement.exceptions.InventoryRejectedException;
 import com.bookstore.bookmanagement.models.BookDetail;
+import com.bookstore.bookmanagement.models.InventoryLineResult;
+import com.bookstore.bookmanagement.models.InventoryLineStatus;
+import com.bookstore.bookmanagement.models.InventoryResult;
 import com.bookstore.bookmanagement.services.BookService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class BookControllerTest {
 
+    private static final byte[] CACHED_JSON = "{\"cached\":true}".getBytes(StandardCharsets.UTF_8);
+
     @InjectMocks
     private BookController bookController;
 
     @Mock
     private BookService bookService;
 
+    @Mock
+    private BookResponseCache bookResponseCache;
+
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+    private MockMvc mockMvc;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+
+        // the converters Spring MVC registers, extended by WebConfig as in the application
+        Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new ParameterNamesModule());
+        List<HttpMessageConverter<?>> converters = new ArrayList<>(List.of(
+                new MappingJackson2HttpMessageConverter(jackson2ObjectMapperBuilder.build()),
+                new MappingJackson2CborHttpMessageConverter()));
+        WebConfig webConfig = new WebConfig();
+        ReflectionTestUtils.setField(webConfig, "bookResponseCache", bookResponseCache);
+        ReflectionTestUtils.setField(webConfig, "jackson2ObjectMapperBuilder", jackson2ObjectMapperBuilder);
+        webConfig.extendMessageConverters(converters);
+
+        when(bookResponseCache.isEnabled()).thenReturn(true);
+        when(bookResponseCache.json(any())).thenReturn(CACHED_JSON);
+        mockMvc = MockMvcBuilders.standaloneSetup(bookController)
+                .setControllerAdvice(new InventoryExceptionHandler())
+                .setMessageConverters(converters.toArray(new HttpMessageConverter<?>[0]))
+                .build();
     }
 
     @Test
@@ -107,7 +161,7 @@ class BookControllerTest {
         books.add(new Book(1, "Book 1", "Author 1", "Description 1", 10.0, 5));
         books.add(new Book(2, "Book 2", "Author 2", "Description 2", 15.0, 3));
 
-        when(bookService.orderBooks(bookDetailList)).thenReturn(books);
+        when(bookService.orderBooks(bookDetailList)).thenReturn(new InventoryResult(true, Collections.emptyList(), books));
 
         // Act
         ResponseEntity<Object> response = bookController.orderBooks(bookDetailList);
@@ -118,6 +172,25 @@ class BookControllerTest {
         assertEquals(books, response.getBody());
     }
 
+    @Test
+    void orderBooks_NotInStock_ThrowsInventoryRejected() {
+        // Arrange
+        List<BookDetail> bookDetailList = new ArrayList<>();
+        bookDetailList.add(new BookDetail(1, 20));
+
+        InventoryResult result = new InventoryResult(false,
+                List.of(new InventoryLineResult(1, InventoryLineStatus.INSUFFICIENT_STOCK, 20, 5)),
+                Collections.emptyList());
+        when(bookService.orderBooks(bookDetailList)).thenReturn(result);
+
+        // Act
+        InventoryRejectedException exception = assertThrows(InventoryRejectedException.class,
+                () -> bookController.orderBooks(bookDetailList));
+
+        // Assert
+        assertEquals(result, exception.getResult());
+    }
+
     @Test
     void orderBooks_ExceptionThrown_ReturnsInternalServerError() {
         // Arrange
@@ -142,6 +215,8 @@ class BookControllerTest {
         bookDetailList.add(new BookDetail(1, 2));
         bookDetailList.add(new BookDetail(2, 3));
 
+        when(bookService.returnBooks(bookDetailList))
+                .thenReturn(new InventoryResult(true, Collections.emptyList(), Collections.emptyList()));
 
         // Act
         ResponseEntity<Boolean> response = bookController.returnBooks(bookDetailList);
@@ -250,6 +325,56 @@ class BookControllerTest {
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
 
+    @Test
+    void patchBook_ExistingBook_ReturnsPatchedBook() throws Exception {
+        // Arrange
+        int bookId = 1;
+        JsonNode patch = new ObjectMapper().readTree("{\"price\": 12.5}");
+        Book book = new Book(1, "Book 1", "Author 1", "Description 1", 12.5, 5);
+
+        when(bookService.patchBook(bookId, patch)).thenReturn(book);
+
+        // Act
+        ResponseEntity<Book> response = bookController.patchBook(bookId, patch);
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(book, response.getBody());
+    }
+
+    @Test
+    void patchBook_NonExistingBook_ReturnsNotFound() throws Exception {
+        // Arrange
+        int bookId = 100;
+        JsonNode patch = new ObjectMapper().readTree("{\"price\": 12.5}");
+
+        when(bookService.patchBook(bookId, patch)).thenReturn(null);
+
+        // Act
+        ResponseEntity<Book> response = bookController.patchBook(bookId, patch);
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void patchBook_InvalidPatch_ReturnsBadRequest() throws Exception {
+        // Arrange
+        int bookId = 1;
+        JsonNode patch = new ObjectMapper().readTree("{\"title\": null}");
+
+        when(bookService.patchBook(bookId, patch)).thenThrow(IllegalArgumentException.class);
+
+        // Act
+        ResponseEntity<Book> response = bookController.patchBook(bookId, patch);
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
     @Test
     void deleteBook_ExistingBook_ReturnsNoContent() {
         // Arrange
@@ -294,4 +419,101 @@ class BookControllerTest {
         assertNotNull(response);
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
+
+    @Test
+    void orderBooks_CborRequest_ReturnsCborBooks() throws Exception {
+        List<BookDetail> bookDetailList = List.of(new BookDetail(1, 2));
+        List<Book> books = List.of(new Book(1, "Book 1", "Author 1", "Description 1", 10.0, 3));
+        when(bookService.orderBooks(bookDetailList)).thenReturn(new InventoryResult(true, Collections.emptyList(), books));
+
+        MvcResult result = mockMvc.perform(put("/books/order")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(bookDetailList)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        assertEquals(books, cborMapper.readValue(result.getResponse().getContentAsByteArray(),
+                new TypeReference<List<Book>>() {
+                }));
+    }
+
+    @Test
+    void orderBooks_CborRequestNotInStock_ReturnsCborConflict() throws Exception {
+        List<BookDetail> bookDetailList = List.of(new BookDetail(1, 20));
+        InventoryResult rejection = new InventoryResult(false,
+                List.of(new InventoryLineResult(1, InventoryLineStatus.INSUFFICIENT_STOCK, 20, 5)),
+                Collections.emptyList());
+        when(bookService.orderBooks(bookDetailList)).thenReturn(rejection);
+
+        MvcResult result = mockMvc.perform(put("/books/order")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(bookDetailList)))
+                .andExpect(status().isConflict())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        assertEquals(rejection, cborMapper.readValue(result.getResponse().getContentAsByteArray(), InventoryResult.class));
+    }
+
+    @Test
+    void returnBooks_CborRequest_ReturnsCborTrue() throws Exception {
+        List<BookDetail> bookDetailList = List.of(new BookDetail(1, 2));
+        when(bookService.returnBooks(bookDetailList))
+                .thenReturn(new InventoryResult(true, Collections.emptyList(), Collections.emptyList()));
+
+        MvcResult result = mockMvc.perform(put("/books/return")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(bookDetailList)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        assertTrue(cborMapper.readValue(result.getResponse().getContentAsByteArray(), Boolean.class));
+    }
+
+    @Test
+    void returnBooks_CborRequestUnknownBook_ReturnsCborNotFound() throws Exception {
+        List<BookDetail> bookDetailList = List.of(new BookDetail(100, 1));
+        InventoryResult rejection = new InventoryResult(false,
+                List.of(new InventoryLineResult(100, InventoryLineStatus.UNKNOWN_BOOK, 1, 0)),
+                Collections.emptyList());
+        when(bookService.returnBooks(bookDetailList)).thenReturn(rejection);
+
+        MvcResult result = mockMvc.perform(put("/books/return")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(bookDetailList)))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        assertEquals(rejection, cborMapper.readValue(result.getResponse().getContentAsByteArray(), InventoryResult.class));
+    }
+
+    @Test
+    void getBookById_JsonAccept_IsWrittenFromResponseCache() throws Exception {
+        when(bookService.getBookById(1)).thenReturn(new Book(1, "Book 1", "Author 1", "Description 1", 10.0, 5));
+
+        mockMvc.perform(get("/books/1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().bytes(CACHED_JSON));
+    }
+
+    @Test
+    void getBookById_CborAccept_BypassesResponseCache() throws Exception {
+        Book book = new Book(1, "Book 1", "Author 1", "Description 1", 10.0, 5);
+        when(bookService.getBookById(1)).thenReturn(book);
+
+        MvcResult result = mockMvc.perform(get("/books/1").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        assertEquals(book, cborMapper.readValue(result.getResponse().getContentAsByteArray(), Book.class));
+    }
 }
@@ -0,0 +1,54 @@
+package com.bookstore.bookmanagement.controllers;
+
+import com.bookstore.bookmanagement.exceptions.InventoryRejectedException;
+import com.bookstore.bookmanagement.models.InventoryLineResult;
+import com.bookstore.bookmanagement.models.InventoryLineStatus;
+import com.bookstore.bookmanagement.models.InventoryResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryExceptionHandlerTest {
+
+    private final InventoryExceptionHandler inventoryExceptionHandler = new InventoryExceptionHandler();
+
+    @Test
+    void handleInventoryRejected_UnknownBook_ReturnsNotFound() {
+        InventoryResult result = new InventoryResult(false, List.of(
+                new InventoryLineResult(1, InventoryLineStatus.INSUFFICIENT_STOCK, 20, 5),
+                new InventoryLineResult(100, InventoryLineStatus.UNKNOWN_BOOK, 1, 0)),
+                Collections.emptyList());
+
+        ResponseEntity<InventoryResult> response =
+                inventoryExceptionHandler.handleInventoryRejected(new InventoryRejectedException("Order rejected", result));
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(result, response.getBody());
+    }
+
+    @Test
+    void handleInventoryRejected_InsufficientStock_ReturnsConflict() {
+        InventoryResult result = new InventoryResult(false, List.of(
+                new InventoryLineResult(1, InventoryLineStatus.INSUFFICIENT_STOCK, 20, 5)),
+                Collections.emptyList());
+
+        ResponseEntity<InventoryResult> response =
+                inventoryExceptionHandler.handleInventoryRejected(new InventoryRejectedException("Order rejected", result));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(result, response.getBody());
+    }
+
+    @Test
+    void inventoryRejectedException_HasNoStackTrace() {
+        InventoryRejectedException exception = new InventoryRejectedException("Order rejected",
+                new InventoryResult(false, Collections.emptyList(), Collections.emptyList()));
+
+        assertEquals(0, exception.getStackTrace().length);
+    }
+}
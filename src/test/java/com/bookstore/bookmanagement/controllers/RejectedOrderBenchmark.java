@@ -0,0 +1,83 @@
+package com.bookstore.bookmanagement.controllers;
+
+import com.bookstore.bookmanagement.dao.InMemoryBookRepository;
+import com.bookstore.bookmanagement.entities.Book;
+import com.bookstore.bookmanagement.exceptions.InventoryRejectedException;
+import com.bookstore.bookmanagement.models.BookDetail;
+import com.bookstore.bookmanagement.services.BookService;
+import com.bookstore.bookmanagement.services.BookServices;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput of rejected (out-of-stock) orders: the typed-result path through
+ * {@link BookController} and {@link InventoryExceptionHandler}, against the previous
+ * approach of throwing {@link IllegalArgumentException} and logging its stack trace.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class RejectedOrderBenchmark {
+
+    private static final int ITERATIONS = 500_000;
+
+    private final BookController bookController = new BookController();
+    private BookService bookService;
+    private final InventoryExceptionHandler inventoryExceptionHandler = new InventoryExceptionHandler();
+    private final List<BookDetail> outOfStockOrder = List.of(new BookDetail(1, 50));
+
+    @BeforeEach
+    void setUp() {
+        InMemoryBookRepository bookRepository = new InMemoryBookRepository();
+        bookRepository.save(new Book(0, "Book 1", "Author 1", "Description 1", 10.0, 5));
+        bookService = BookServices.bookService(bookRepository);
+        ReflectionTestUtils.setField(bookController, "bookService", bookService);
+    }
+
+    @Test
+    void rejectedOrderThroughput() {
+        PrintWriter logSink = new PrintWriter(Writer.nullWriter());
+
+        Runnable typedResult = () -> {
+            try {
+                bookController.orderBooks(outOfStockOrder);
+            } catch (InventoryRejectedException e) {
+                inventoryExceptionHandler.handleInventoryRejected(e);
+            }
+        };
+        Runnable stackTraceException = () -> {
+            try {
+                bookService.orderBooks(outOfStockOrder);
+                throw new IllegalArgumentException("Book with ID: 1 is not in stock.");
+            } catch (IllegalArgumentException e) {
+                // what log.error("Failed to issue books", e) costs once the appender formats it
+                e.printStackTrace(logSink);
+            }
+        };
+
+        double typedResultOps = opsPerSecond(typedResult);
+        double stackTraceOps = opsPerSecond(stackTraceException);
+
+        System.out.printf("rejected orders/s  typed result: %,.0f | exception with stack trace: %,.0f%n",
+                typedResultOps, stackTraceOps);
+        assertTrue(typedResultOps > stackTraceOps);
+    }
+
+    private static double opsPerSecond(Runnable operation) {
+        for (int i = 0; i < ITERATIONS / 5; i++) {
+            operation.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            operation.run();
+        }
+        return ITERATIONS / ((System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,106 @@
+package com.bookstore.bookmanagement.controllers;
+
+import com.bookstore.bookmanagement.entities.Book;
+import com.bookstore.bookmanagement.models.BookDetail;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares payload size and encode/decode time of JSON and CBOR for the order service's
+ * {@code PUT /books/order} call: the {@code BookDetail} request and the {@code Book} response.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class WireFormatBenchmark {
+
+    private static final int ITERATIONS = 200_000;
+
+    // Boot registers ParameterNamesModule, which BookDetail's all-args constructor needs
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new ParameterNamesModule()).build();
+
+    private final ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor()
+            .modulesToInstall(new ParameterNamesModule()).build();
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void order(int lines) throws IOException {
+        List<BookDetail> request = new ArrayList<>();
+        List<Book> response = new ArrayList<>();
+        for (int i = 1; i <= lines; i++) {
+            request.add(new BookDetail(i, 1 + i % 3));
+            response.add(new Book(i, "Book " + i, "Author " + i, "Description of book " + i, 10.0 + i, 100 - i % 3));
+        }
+
+        Result jsonResult = measure(json, request, response, ITERATIONS / lines);
+        Result cborResult = measure(cbor, request, response, ITERATIONS / lines);
+
+        report(lines, "json", jsonResult);
+        report(lines, "cbor", cborResult);
+        assertTrue(cborResult.requestBytes < jsonResult.requestBytes);
+        assertTrue(cborResult.responseBytes < jsonResult.responseBytes);
+    }
+
+    private static Result measure(ObjectMapper mapper, List<BookDetail> request, List<Book> response,
+                                  int iterations) throws IOException {
+        JavaType requestType = mapper.getTypeFactory().constructCollectionType(List.class, BookDetail.class);
+        JavaType responseType = mapper.getTypeFactory().constructCollectionType(List.class, Book.class);
+        byte[] requestBytes = mapper.writeValueAsBytes(request);
+        byte[] responseBytes = mapper.writeValueAsBytes(response);
+
+        Result result = new Result(requestBytes.length, responseBytes.length);
+        result.encodeRequestNanos = time(() -> mapper.writeValueAsBytes(request), iterations);
+        result.decodeRequestNanos = time(() -> mapper.readValue(requestBytes, requestType), iterations);
+        result.encodeResponseNanos = time(() -> mapper.writeValueAsBytes(response), iterations);
+        result.decodeResponseNanos = time(() -> mapper.readValue(responseBytes, responseType), iterations);
+        return result;
+    }
+
+    private static double time(Operation operation, int iterations) throws IOException {
+        for (int i = 0; i < iterations / 5; i++) {
+            operation.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        return (double) (System.nanoTime() - start) / iterations;
+    }
+
+    private static void report(int lines, String format, Result result) {
+        System.out.printf("%3d lines %s: request %6d B, encode %9.1f ns, decode %9.1f ns | "
+                        + "response %6d B, encode %9.1f ns, decode %9.1f ns%n",
+                lines, format, result.requestBytes, result.encodeRequestNanos, result.decodeRequestNanos,
+                result.responseBytes, result.encodeResponseNanos, result.decodeResponseNanos);
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        Object run() throws IOException;
+    }
+
+    private static final class Result {
+        private final int requestBytes;
+        private final int responseBytes;
+        private double encodeRequestNanos;
+        private double decodeRequestNanos;
+        private double encodeResponseNanos;
+        private double decodeResponseNanos;
+
+        private Result(int requestBytes, int responseBytes) {
+            this.requestBytes = requestBytes;
+            this.responseBytes = responseBytes;
+        }
+    }
+}
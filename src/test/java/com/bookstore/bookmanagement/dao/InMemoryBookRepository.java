@@ -0,0 +1,116 @@
+package com.bookstore.bookmanagement.dao;
+
+import com.bookstore.bookmanagement.entities.Book;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Map-backed {@link BookRepository} for benchmarks, where Mockito's per-call overhead would
+ * drown out the code being measured. Like the database it hands out copies, never the stored rows.
+ */
+public class InMemoryBookRepository implements BookRepository {
+
+    private final Map<Integer, Book> books = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    @Override
+    public <S extends Book> S save(S entity) {
+        if (entity.getId() == 0) {
+            entity.setId(nextId.getAndIncrement());
+        }
+        books.put(entity.getId(), copy(entity));
+        return entity;
+    }
+
+    @Override
+    public <S extends Book> Iterable<S> saveAll(Iterable<S> entities) {
+        entities.forEach(this::save);
+        return entities;
+    }
+
+    @Override
+    public Optional<Book> findById(Integer id) {
+        Book book = books.get(id);
+        return book == null ? Optional.empty() : Optional.of(copy(book));
+    }
+
+    @Override
+    public boolean existsById(Integer id) {
+        return books.containsKey(id);
+    }
+
+    @Override
+    public Iterable<Book> findAll() {
+        List<Book> all = new ArrayList<>();
+        books.values().forEach(book -> all.add(copy(book)));
+        return all;
+    }
+
+    @Override
+    public Iterable<Book> findAllById(Iterable<Integer> ids) {
+        List<Book> found = new ArrayList<>();
+        ids.forEach(id -> findById(id).ifPresent(found::add));
+        return found;
+    }
+
+    @Override
+    public long count() {
+        return books.size();
+    }
+
+    @Override
+    public void deleteById(Integer id) {
+        books.remove(id);
+    }
+
+    @Override
+    public void delete(Book entity) {
+        books.remove(entity.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Integer> ids) {
+        ids.forEach(books::remove);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Book> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        books.clear();
+    }
+
+    @Override
+    public List<Integer> findAllIds() {
+        return new ArrayList<>(books.keySet());
+    }
+
+    @Override
+    public Optional<Book> findByIdForUpdate(int id) {
+        return findById(id);
+    }
+
+    @Override
+    public List<Book> findBelowReorderPoint() {
+        List<Book> found = new ArrayList<>();
+        books.values().forEach(book -> {
+            if (book.getReorderPoint() != null && book.getQuantity() < book.getReorderPoint()) {
+                found.add(copy(book));
+            }
+        });
+        return found;
+    }
+
+    private static Book copy(Book book) {
+        return new Book(book.getId(), book.getTitle(), book.getAuthor(), book.getDescription(),
+                book.getPrice(), book.getQuantity(), book.getReorderPoint());
+    }
+}
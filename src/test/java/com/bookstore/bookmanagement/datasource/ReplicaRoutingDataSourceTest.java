@@ -0,0 +1,88 @@
+package com.bookstore.bookmanagement.datasource;
+
+import com.bookstore.bookmanagement.entities.Book;
+import com.bookstore.bookmanagement.services.BookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "bookmanagement.journal.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "bookmanagement.datasource.routing.enabled=true",
+        "bookmanagement.datasource.routing.primary.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "bookmanagement.datasource.routing.replicas[0].url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        // heartbeats and replication are driven by the tests
+        "bookmanagement.datasource.routing.heartbeat-interval=1h",
+        "bookmanagement.datasource.routing.local-replicator.enabled=true",
+        "bookmanagement.datasource.routing.local-replicator.interval=1h"
+})
+class ReplicaRoutingDataSourceTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private ReplicationHeartbeat replicationHeartbeat;
+
+    @Autowired
+    private LocalReplicator localReplicator;
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void getBookById_ReadsFromReplicaOnceCaughtUp() {
+        Book replicated = bookService.createBook(new Book(0, "Replicated", "Author", "Description", 10.0, 5));
+        catchUp();
+        Book notYetReplicated = bookService.createBook(new Book(0, "Not replicated", "Author", "Description", 10.0, 5));
+
+        assertNotNull(bookService.getBookById(replicated.getId()));
+        // only on the primary so far, and the replica serves the read
+        assertNull(bookService.getBookById(notYetReplicated.getId()));
+
+        catchUp();
+        assertNotNull(bookService.getBookById(notYetReplicated.getId()));
+    }
+
+    @Test
+    void getBookById_AfterOwnWrite_ReadsFromPrimaryUntilReplicaCatchesUp() throws InterruptedException {
+        catchUp();
+        // keep the write in a later millisecond than the replica's last heartbeat
+        Thread.sleep(5);
+        Book book = bookService.createBook(new Book(0, "Own write", "Author", "Description", 10.0, 5));
+
+        ReadYourWrites.require(System.currentTimeMillis());
+        assertNotNull(bookService.getBookById(book.getId()));
+        assertNull(routingDataSource.pickReplica(ReadYourWrites.requiredMillis()));
+
+        catchUp();
+        assertNotNull(routingDataSource.pickReplica(ReadYourWrites.requiredMillis()));
+    }
+
+    @Test
+    void getBookById_ReplicaLagging_FallsBackToPrimary() {
+        catchUp();
+        Book book = bookService.createBook(new Book(0, "Lagging", "Author", "Description", 10.0, 5));
+
+        routingDataSource.getReplicas().get(0).caughtUpToMillis = 0;
+
+        assertNotNull(bookService.getBookById(book.getId()));
+    }
+
+    private void catchUp() {
+        // the replica has everything committed before the first beat once the second reads it back
+        replicationHeartbeat.beat();
+        localReplicator.replicate();
+        replicationHeartbeat.beat();
+    }
+}
@@ -0,0 +1,192 @@
+package com.bookstore.bookmanagement.journal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryJournalTest {
+
+    @TempDir
+    Path journalDirectory;
+
+    private JournalProperties properties;
+
+    private InventoryJournal inventoryJournal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties = new JournalProperties();
+        properties.setDirectory(journalDirectory.toString());
+        // three records per segment, so the tests cross segment boundaries
+        properties.setSegmentSize(3 * InventoryJournal.RECORD_SIZE);
+        inventoryJournal = new InventoryJournal(properties);
+        inventoryJournal.open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        inventoryJournal.close();
+    }
+
+    @Test
+    void append_RollsSegmentsWhenFull() throws IOException {
+        for (int i = 0; i < 7; i++) {
+            inventoryJournal.append(1, -1, 10 - i);
+        }
+
+        try (Stream<Path> segments = Files.list(journalDirectory)) {
+            assertEquals(3, segments.count());
+        }
+    }
+
+    @Test
+    void history_ReturnsChangesOfBookInOrder() {
+        UUID requestId = UUID.randomUUID();
+        inventoryJournal.append(1, -2, 8, requestId);
+        inventoryJournal.append(2, -1, 4, requestId);
+        inventoryJournal.append(1, 5, 13, requestId);
+        inventoryJournal.append(1, -3, 10, requestId);
+
+        List<JournalRecord> history = inventoryJournal.history(1, Instant.EPOCH, Instant.now());
+
+        assertEquals(3, history.size());
+        assertEquals(-2, history.get(0).getDelta());
+        assertEquals(13, history.get(1).getResultingQuantity());
+        assertEquals(10, history.get(2).getResultingQuantity());
+        assertEquals(requestId, history.get(0).getRequestId());
+        assertEquals(0, history.get(0).getSequence());
+        assertEquals(3, history.get(2).getSequence());
+    }
+
+    @Test
+    void stockAt_ReturnsQuantityAtPointInTime() throws InterruptedException {
+        inventoryJournal.append(1, -2, 8);
+        Thread.sleep(5);
+        Instant between = Instant.now();
+        Thread.sleep(5);
+        inventoryJournal.append(1, -3, 5);
+
+        assertEquals(8, inventoryJournal.stockAt(1, between));
+        assertEquals(5, inventoryJournal.stockAt(1, Instant.now()));
+        assertNull(inventoryJournal.stockAt(1, Instant.EPOCH));
+        assertNull(inventoryJournal.stockAt(2, Instant.now()));
+    }
+
+    @Test
+    void open_ContinuesAfterLastRecordOfExistingJournal() throws IOException {
+        inventoryJournal.append(1, -1, 9);
+        inventoryJournal.append(1, -1, 8);
+        inventoryJournal.append(1, -1, 7);
+        inventoryJournal.append(1, -1, 6);
+        inventoryJournal.close();
+
+        inventoryJournal = new InventoryJournal(properties);
+        inventoryJournal.open();
+        inventoryJournal.append(1, 4, 10);
+
+        List<JournalRecord> history = inventoryJournal.history(1, Instant.EPOCH, Instant.now());
+        assertEquals(5, history.size());
+        assertEquals(4, history.get(4).getSequence());
+        assertEquals(10, inventoryJournal.stockAt(1, Instant.now()));
+    }
+
+    @Test
+    void append_InTransaction_WritesJustBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            inventoryJournal.append(1, -2, 8);
+            assertNull(inventoryJournal.stockAt(1, Instant.now()));
+
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            assertEquals(8, inventoryJournal.stockAt(1, Instant.now()));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void append_InRolledBackTransaction_WritesNothing() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            inventoryJournal.append(1, -2, 8);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertNull(inventoryJournal.stockAt(1, Instant.now()));
+    }
+
+    @Test
+    void append_SyncOnCommit_IsOnDiskWhenItReturns() {
+        inventoryJournal.append(1, -2, 8);
+        inventoryJournal.append(1, -1, 7);
+
+        assertEquals(2, inventoryJournal.durableSequence());
+    }
+
+    @Test
+    void append_ConcurrentAppends_AllReachDisk() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> appends = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                int bookId = i % 4;
+                appends.add(executor.submit(() -> inventoryJournal.append(bookId, -1, 0)));
+            }
+            for (Future<?> append : appends) {
+                append.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(100, inventoryJournal.durableSequence());
+    }
+
+    @Test
+    void append_WithoutSyncOnCommit_DoesNotWaitForDisk() throws IOException {
+        inventoryJournal.close();
+        properties.setSyncOnCommit(false);
+        inventoryJournal = new InventoryJournal(properties);
+        inventoryJournal.open();
+
+        inventoryJournal.append(1, -2, 8);
+
+        assertEquals(0, inventoryJournal.durableSequence());
+        assertEquals(8, inventoryJournal.stockAt(1, Instant.now()));
+    }
+
+    @Test
+    void archive_HidesEarlierRecordsAndKeepsCountingSequences() throws IOException {
+        inventoryJournal.append(1, -1, 9);
+        inventoryJournal.append(1, -1, 8);
+
+        Path archive = inventoryJournal.archive();
+        inventoryJournal.append(1, 4, 4);
+
+        List<JournalRecord> history = inventoryJournal.history(1, Instant.EPOCH, Instant.now());
+        assertEquals(1, history.size());
+        assertEquals(2, history.get(0).getSequence());
+        assertEquals(4, inventoryJournal.stockAt(1, Instant.now()));
+        try (Stream<Path> archived = Files.list(archive)) {
+            assertEquals(1, archived.count());
+        }
+    }
+}
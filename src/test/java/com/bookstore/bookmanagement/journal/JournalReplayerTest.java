@@ -0,0 +1,97 @@
+package com.bookstore.bookmanagement.journal;
+
+import com.bookstore.bookmanagement.dao.BookRepository;
+import com.bookstore.bookmanagement.entities.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class JournalReplayerTest {
+
+    @Mock
+    private InventoryJournal inventoryJournal;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private JournalReplayer journalReplayer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(inventoryJournal.isEnabled()).thenReturn(true);
+        doAnswer(invocation -> {
+            Predicate<JournalRecord> visitor = invocation.getArgument(0);
+            if (visitor.test(new JournalRecord(0, 1, -2, 8, 1_000, new UUID(0, 0)))) {
+                visitor.test(new JournalRecord(1, 1, -3, 5, 2_000, new UUID(0, 0)));
+            }
+            return null;
+        }).when(inventoryJournal).forEachRecord(any());
+    }
+
+    @Test
+    void replay_SetsQuantityAtPointInTime() {
+        Book book = new Book(1, "Book 1", "Author 1", "Description 1", 10.0, 20);
+        when(bookRepository.count()).thenReturn(1L);
+        when(bookRepository.findById(1)).thenReturn(Optional.of(book));
+
+        assertEquals(1, journalReplayer.replay(Instant.ofEpochMilli(1_500)));
+
+        assertEquals(8, book.getQuantity());
+        verify(bookRepository).save(book);
+    }
+
+    @Test
+    void replay_EmptyBookTable_ReplaysNothing() {
+        when(bookRepository.count()).thenReturn(0L);
+
+        assertEquals(0, journalReplayer.replay(Instant.now()));
+
+        verify(bookRepository, never()).findById(anyInt());
+        verify(bookRepository, never()).save(any());
+    }
+
+    @Test
+    void run_EmptyBookTableWithoutReplay_ArchivesJournal() throws IOException {
+        when(bookRepository.count()).thenReturn(0L);
+        when(inventoryJournal.archive()).thenReturn(Paths.get("archive"));
+
+        journalReplayer.run(new DefaultApplicationArguments());
+
+        verify(inventoryJournal).archive();
+    }
+
+    @Test
+    void run_EmptyBookTableWithReplay_KeepsJournal() throws IOException {
+        when(bookRepository.count()).thenReturn(0L);
+
+        journalReplayer.run(new DefaultApplicationArguments("--journal.replay"));
+
+        verify(inventoryJournal, never()).archive();
+        verify(bookRepository, never()).save(any());
+    }
+
+    @Test
+    void run_BooksPresent_KeepsJournal() throws IOException {
+        when(bookRepository.count()).thenReturn(3L);
+
+        journalReplayer.run(new DefaultApplicationArguments());
+
+        verify(inventoryJournal, never()).archive();
+    }
+}
@@ -0,0 +1,307 @@
+package com.bookstore.bookmanagement.load;
+
+import com.bookstore.bookmanagement.dao.BookRepository;
+import com.bookstore.bookmanagement.entities.Book;
+import com.bookstore.bookmanagement.services.BookService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Soak test driving a mix of browse, get-by-ID, order and return calls over HTTP against
+ * the application on a random port with an in-memory H2 database.
+ * <p>
+ * Every worker thread issues requests on a fixed schedule. Latency is measured from the
+ * time a request was scheduled to start, not from when it was actually sent, so a stalled
+ * server is charged for the requests that queued up behind the stall (no coordinated
+ * omission). At the end, inventory is checked against the successful orders and returns.
+ * <p>
+ * Run with {@code mvn test -Pload-test}; tune with system properties, for example
+ * {@code -Dload.books=1000 -Dload.threads=32 -Dload.rate=2000 -Dload.duration=PT30S
+ * -Dload.mix=browse:5,get:60,order:25,return:10 -Dload.stock=1000}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "bookmanagement.journal.directory=target/load-test/journal"
+})
+class InventoryLoadTest {
+
+    private static final int BOOKS = Integer.getInteger("load.books", 1_000);
+    private static final int THREADS = Integer.getInteger("load.threads", 32);
+    private static final int RATE = Integer.getInteger("load.rate", 2_000);
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT30S"));
+    private static final String MIX = System.getProperty("load.mix", "browse:5,get:60,order:25,return:10");
+    private static final int INITIAL_STOCK = Integer.getInteger("load.stock", 1_000);
+
+    private enum Operation { BROWSE, GET, ORDER, RETURN }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> completed = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> rejected = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> failed = new EnumMap<>(Operation.class);
+
+    private int[] bookIds;
+    // units ordered and not yet returned, per book index; returns only give these back
+    private AtomicIntegerArray outstanding;
+    private int[] mixThresholds;
+
+    @Test
+    void soak() throws InterruptedException {
+        seedBooks();
+        parseMix();
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(3));
+            completed.put(operation, new AtomicLong());
+            rejected.put(operation, new AtomicLong());
+            failed.put(operation, new AtomicLong());
+        }
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) * THREADS / RATE;
+        long startNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long endNanos = startNanos + DURATION.toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(THREADS);
+        for (int worker = 0; worker < THREADS; worker++) {
+            // stagger the workers so the combined schedule is evenly spaced
+            long firstNanos = startNanos + intervalNanos * worker / THREADS;
+            workers.execute(() -> runWorker(firstNanos, intervalNanos, endNanos));
+        }
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(DURATION.toSeconds() + 60, TimeUnit.SECONDS));
+
+        report((System.nanoTime() - startNanos) / 1e9);
+        checkInventoryInvariants();
+        for (Operation operation : Operation.values()) {
+            assertEquals(0, failed.get(operation).get(), operation + " requests failed");
+        }
+    }
+
+    private void seedBooks() {
+        bookIds = new int[BOOKS];
+        outstanding = new AtomicIntegerArray(BOOKS);
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = bookService.createBook(new Book(0, "Load test book " + i, "Author " + i,
+                    "Seeded by InventoryLoadTest", 10.0 + i % 50, INITIAL_STOCK));
+            bookIds[i] = book.getId();
+        }
+    }
+
+    private void parseMix() {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : MIX.split(",")) {
+            String[] parts = entry.split(":");
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        mixThresholds = new int[Operation.values().length];
+        int total = 0;
+        for (Operation operation : Operation.values()) {
+            total += weights.getOrDefault(operation, 0);
+            mixThresholds[operation.ordinal()] = total;
+        }
+        assertTrue(total > 0, "load.mix has no weights");
+    }
+
+    private void runWorker(long firstNanos, long intervalNanos, long endNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long intendedNanos = firstNanos; intendedNanos < endNanos; intendedNanos += intervalNanos) {
+            long waitNanos = intendedNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+
+            Operation operation = pickOperation(random);
+            try {
+                execute(operation, random);
+            } catch (IOException | RuntimeException e) {
+                failed.get(operation).incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            latencies.get(operation).recordValue(Math.max(0, System.nanoTime() - intendedNanos));
+        }
+    }
+
+    private Operation pickOperation(ThreadLocalRandom random) {
+        int roll = random.nextInt(mixThresholds[mixThresholds.length - 1]);
+        for (Operation operation : Operation.values()) {
+            if (roll < mixThresholds[operation.ordinal()]) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    private void execute(Operation operation, ThreadLocalRandom random) throws IOException, InterruptedException {
+        switch (operation) {
+            case BROWSE:
+                expect(operation, send(HttpRequest.newBuilder(uri("/books")).GET()), 200);
+                break;
+            case GET:
+                int getIndex = random.nextInt(BOOKS);
+                expect(operation, send(HttpRequest.newBuilder(uri("/books/" + bookIds[getIndex])).GET()), 200);
+                break;
+            case ORDER:
+                order(random);
+                break;
+            case RETURN:
+                returnOutstanding(random);
+                break;
+            default:
+                throw new IllegalStateException("Unknown operation " + operation);
+        }
+    }
+
+    private void order(ThreadLocalRandom random) throws IOException, InterruptedException {
+        int lineCount = 1 + random.nextInt(3);
+        int[] indexes = new int[lineCount];
+        int[] quantities = new int[lineCount];
+        for (int line = 0; line < lineCount; line++) {
+            indexes[line] = random.nextInt(BOOKS);
+            quantities[line] = 1 + random.nextInt(3);
+        }
+
+        int status = send(bookDetailRequest("/books/order", indexes, quantities));
+        if (status == 200) {
+            for (int line = 0; line < lineCount; line++) {
+                outstanding.addAndGet(indexes[line], quantities[line]);
+            }
+        }
+        expect(Operation.ORDER, status, 200, 409);
+    }
+
+    private void returnOutstanding(ThreadLocalRandom random) throws IOException, InterruptedException {
+        int index = random.nextInt(BOOKS);
+        int quantity;
+        // claim units before returning them, so concurrent returns never give back more than was ordered;
+        // with nothing outstanding this sends a zero-quantity return, which still exercises the endpoint
+        while (true) {
+            int available = outstanding.get(index);
+            quantity = Math.min(available, 1 + random.nextInt(3));
+            if (quantity == 0 || outstanding.compareAndSet(index, available, available - quantity)) {
+                break;
+            }
+        }
+
+        int status = send(bookDetailRequest("/books/return", new int[]{index}, new int[]{quantity}));
+        if (status != 200) {
+            outstanding.addAndGet(index, quantity);
+        }
+        expect(Operation.RETURN, status, 200);
+    }
+
+    private HttpRequest.Builder bookDetailRequest(String path, int[] indexes, int[] quantities) {
+        StringBuilder body = new StringBuilder("[");
+        for (int line = 0; line < indexes.length; line++) {
+            if (line > 0) {
+                body.append(',');
+            }
+            body.append("{\"bookId\":").append(bookIds[indexes[line]])
+                    .append(",\"orderedQuantity\":").append(quantities[line]).append('}');
+        }
+        body.append(']');
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(body.toString()));
+    }
+
+    private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+
+    private void expect(Operation operation, int status, int... expected) {
+        if (status == expected[0]) {
+            completed.get(operation).incrementAndGet();
+            return;
+        }
+        for (int i = 1; i < expected.length; i++) {
+            if (status == expected[i]) {
+                rejected.get(operation).incrementAndGet();
+                return;
+            }
+        }
+        failed.get(operation).incrementAndGet();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private void report(double elapsedSeconds) {
+        long total = 0;
+        System.out.printf("%n%-8s %10s %10s %8s %10s %10s %10s %10s%n",
+                "op", "ok", "rejected", "failed", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation);
+            total += histogram.getTotalCount();
+            System.out.printf("%-8s %10d %10d %8d %10.2f %10.2f %10.2f %10.2f%n", operation,
+                    completed.get(operation).get(), rejected.get(operation).get(), failed.get(operation).get(),
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+        }
+        System.out.printf("throughput: %.0f requests/s (target %d) over %.1f s with %d threads%n%n",
+                total / elapsedSeconds, RATE, elapsedSeconds, THREADS);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private void checkInventoryInvariants() {
+        List<String> violations = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = bookRepository.findById(bookIds[i]).orElse(null);
+            if (book == null) {
+                violations.add("book " + bookIds[i] + " disappeared");
+                continue;
+            }
+            if (book.getQuantity() < 0) {
+                violations.add("book " + book.getId() + " has negative stock " + book.getQuantity());
+            }
+            int expected = INITIAL_STOCK - outstanding.get(i);
+            if (book.getQuantity() != expected) {
+                violations.add("book " + book.getId() + " has stock " + book.getQuantity() + ", expected " + expected);
+            }
+        }
+        assertTrue(violations.isEmpty(), "Inventory invariants violated: " + violations);
+    }
+}
@@ -0,0 +1,158 @@
+package com.bookstore.bookmanagement.membership;
+
+import com.bookstore.bookmanagement.dao.InMemoryBookRepository;
+import com.bookstore.bookmanagement.entities.Book;
+import com.bookstore.bookmanagement.services.BookService;
+import com.bookstore.bookmanagement.services.BookServices;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookIdFilterTest {
+
+    private InMemoryBookRepository bookRepository;
+
+    private BookIdFilterProperties properties;
+
+    private BookIdFilter bookIdFilter;
+
+    private BookService bookService;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = new InMemoryBookRepository();
+        bookRepository.save(new Book(0, "Book 1", "Author 1", "Description 1", 10.0, 5));
+
+        properties = new BookIdFilterProperties();
+        properties.setExpectedInsertions(1_000);
+        bookIdFilter = new BookIdFilter(bookRepository, properties);
+        bookIdFilter.init();
+        bookIdFilter.load();
+
+        bookService = BookServices.bookService(bookRepository, bookIdFilter);
+    }
+
+    @Test
+    void getBookById_BookInsertedThroughRepository_IsFoundAndAdded() {
+        properties.setMaxStaleness(Duration.ZERO);
+        // e.g. inserted by another instance, bypassing this instance's BookService
+        Book inserted = bookRepository.save(new Book(0, "Book 2", "Author 2", "Description 2", 15.0, 3));
+
+        assertEquals(inserted, bookService.getBookById(inserted.getId()));
+        assertEquals(1L, bookIdFilter.stats().get("missedIds"));
+
+        properties.setAuthoritative(true);
+        assertFalse(bookIdFilter.isDefinitelyAbsent(inserted.getId()));
+    }
+
+    @Test
+    void isDefinitelyAbsent_FreshFilter_RejectsUnknownIds() {
+        assertTrue(bookIdFilter.isDefinitelyAbsent(100));
+        assertFalse(bookIdFilter.isDefinitelyAbsent(1));
+        assertNull(bookService.getBookById(100));
+        assertEquals(2L, bookIdFilter.stats().get("rejectedLookups"));
+    }
+
+    @Test
+    void isDefinitelyAbsent_StaleFilter_NeverRejects() throws InterruptedException {
+        properties.setMaxStaleness(Duration.ofMillis(1));
+        Thread.sleep(10);
+
+        assertFalse(bookIdFilter.isDefinitelyAbsent(100));
+        assertEquals(0L, bookIdFilter.stats().get("rejectedLookups"));
+    }
+
+    @Test
+    void isDefinitelyAbsent_NoMaxStaleness_NeverRejects() {
+        properties.setMaxStaleness(Duration.ZERO);
+
+        assertFalse(bookIdFilter.isDefinitelyAbsent(100));
+        assertNull(bookService.getBookById(100));
+        assertEquals(0L, bookIdFilter.stats().get("rejectedLookups"));
+    }
+
+    @Test
+    void refresh_BookInsertedThroughRepository_IsNoLongerRejected() {
+        Book inserted = bookRepository.save(new Book(0, "Book 2", "Author 2", "Description 2", 15.0, 3));
+        assertTrue(bookIdFilter.isDefinitelyAbsent(inserted.getId()));
+
+        bookIdFilter.refresh();
+
+        assertFalse(bookIdFilter.isDefinitelyAbsent(inserted.getId()));
+        assertEquals(inserted, bookService.getBookById(inserted.getId()));
+        assertEquals(2L, bookIdFilter.stats().get("rebuilds"));
+    }
+
+    @Test
+    void isDefinitelyAbsent_Authoritative_RejectsUnknownIds() {
+        properties.setAuthoritative(true);
+
+        assertTrue(bookIdFilter.isDefinitelyAbsent(100));
+        assertFalse(bookIdFilter.isDefinitelyAbsent(1));
+        assertEquals(1L, bookIdFilter.stats().get("rejectedLookups"));
+    }
+
+    @Test
+    void remove_InTransaction_AppliedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookIdFilter.remove(1);
+            assertFalse(bookIdFilter.isDefinitelyAbsent(1));
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            assertTrue(bookIdFilter.isDefinitelyAbsent(1));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void remove_RolledBack_KeepsId() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookIdFilter.remove(1);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(bookIdFilter.isDefinitelyAbsent(1));
+        assertEquals(1L, bookIdFilter.stats().get("ids"));
+    }
+
+    @Test
+    void remove_CommittedAfterRebuildWithoutId_LeavesRebuiltFilterAlone() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookIdFilter.remove(1);
+            bookRepository.deleteById(1);
+            // the rebuild's query already misses the deleted book
+            bookIdFilter.refresh();
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(0L, bookIdFilter.stats().get("ids"));
+        assertTrue(bookIdFilter.isDefinitelyAbsent(1));
+    }
+
+    @Test
+    void add_InTransaction_AppliedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookIdFilter.add(100);
+            assertTrue(bookIdFilter.isDefinitelyAbsent(100));
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            assertFalse(bookIdFilter.isDefinitelyAbsent(100));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
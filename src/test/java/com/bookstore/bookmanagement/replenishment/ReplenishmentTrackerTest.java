@@ -0,0 +1,175 @@
+package com.bookstore.bookmanagement.replenishment;
+
+import com.bookstore.bookmanagement.dao.InMemoryBookRepository;
+import com.bookstore.bookmanagement.entities.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplenishmentTrackerTest {
+
+    @TempDir
+    Path directory;
+
+    private InMemoryBookRepository bookRepository;
+    private ReplenishmentProperties properties;
+    private ReplenishmentTracker replenishmentTracker;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = new InMemoryBookRepository();
+        properties = new ReplenishmentProperties();
+        properties.setBatchSize(2);
+        properties.setFile(directory.resolve("suggestions.jsonl").toString());
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        replenishmentTracker = new ReplenishmentTracker(bookRepository, properties, objectMapper);
+    }
+
+    @Test
+    void update_CrossingReorderPointBothWays_AddsAndRemovesBook() {
+        Book book = new Book(1, "Book 1", "Author 1", "Description 1", 10.0, 5, 3);
+        replenishmentTracker.update(book);
+        assertEquals(0, replenishmentTracker.lowStockBooks());
+
+        book.setQuantity(2);
+        replenishmentTracker.update(book);
+        assertEquals(1, replenishmentTracker.lowStockBooks());
+        assertEquals(1, replenishmentTracker.currentBatch().getSuggestions().get(0).getShortfall());
+
+        book.setQuantity(3);
+        replenishmentTracker.update(book);
+        assertEquals(0, replenishmentTracker.lowStockBooks());
+    }
+
+    @Test
+    void update_InTransaction_AppliesJustBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            replenishmentTracker.update(new Book(1, "Book 1", "Author 1", "Description 1", 10.0, 2, 3));
+            assertEquals(0, replenishmentTracker.lowStockBooks());
+
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            assertEquals(1, replenishmentTracker.lowStockBooks());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void update_WithoutReorderPoint_NeverSuggestsBook() {
+        replenishmentTracker.update(new Book(1, "Book 1", "Author 1", "Description 1", 10.0, 0));
+
+        assertEquals(0, replenishmentTracker.lowStockBooks());
+    }
+
+    @Test
+    void load_FindsBooksAlreadyBelowReorderPoint() {
+        bookRepository.save(new Book(0, "Book 1", "Author 1", "Description 1", 10.0, 1, 5));
+        bookRepository.save(new Book(0, "Book 2", "Author 2", "Description 2", 10.0, 9, 5));
+
+        replenishmentTracker.load();
+
+        assertEquals(1, replenishmentTracker.lowStockBooks());
+    }
+
+    @Test
+    void emit_WritesLargestShortfallsUpToBatchSize() throws Exception {
+        replenishmentTracker.update(new Book(1, "Book 1", "Author 1", "Description 1", 10.0, 4, 5));
+        replenishmentTracker.update(new Book(2, "Book 2", "Author 2", "Description 2", 10.0, 0, 20));
+        replenishmentTracker.update(new Book(3, "Book 3", "Author 3", "Description 3", 10.0, 2, 10));
+
+        replenishmentTracker.emit();
+
+        ReplenishmentBatch batch = replenishmentTracker.latestBatch();
+        assertEquals(3, batch.getLowStockBooks());
+        List<ReplenishmentSuggestion> suggestions = batch.getSuggestions();
+        assertEquals(2, suggestions.size());
+        assertEquals(2, suggestions.get(0).getBookId());
+        assertEquals(3, suggestions.get(1).getBookId());
+
+        List<String> lines = Files.readAllLines(directory.resolve("suggestions.jsonl"));
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"bookId\":2"));
+    }
+
+    @Test
+    void emit_WritesOnlyNewAndChangedSuggestions() throws Exception {
+        replenishmentTracker.update(new Book(1, "Book 1", "Author 1", "Description 1", 10.0, 4, 5));
+        replenishmentTracker.update(new Book(2, "Book 2", "Author 2", "Description 2", 10.0, 0, 20));
+        replenishmentTracker.emit();
+
+        replenishmentTracker.emit();
+        assertEquals(2, replenishmentTracker.latestBatch().getSuggestions().size());
+
+        replenishmentTracker.update(new Book(1, "Book 1", "Author 1", "Description 1", 10.0, 1, 5));
+        replenishmentTracker.emit();
+
+        List<String> lines = Files.readAllLines(directory.resolve("suggestions.jsonl"));
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).contains("\"bookId\":1"));
+        assertFalse(lines.get(1).contains("\"bookId\":2"));
+    }
+
+    @Test
+    void emit_BookBackBelowReorderPoint_WritesItAgain() throws Exception {
+        Book book = new Book(1, "Book 1", "Author 1", "Description 1", 10.0, 4, 5);
+        replenishmentTracker.update(book);
+        replenishmentTracker.emit();
+
+        book.setQuantity(5);
+        replenishmentTracker.update(book);
+        replenishmentTracker.emit();
+        book.setQuantity(4);
+        replenishmentTracker.update(book);
+        replenishmentTracker.emit();
+
+        assertEquals(2, Files.readAllLines(directory.resolve("suggestions.jsonl")).size());
+    }
+
+    @Test
+    void emit_FileOverMaxSize_RollsItOver() throws Exception {
+        properties.setMaxFileSize(1);
+        Book book = new Book(1, "Book 1", "Author 1", "Description 1", 10.0, 4, 5);
+        replenishmentTracker.update(book);
+        replenishmentTracker.emit();
+
+        book.setQuantity(3);
+        replenishmentTracker.update(book);
+        replenishmentTracker.emit();
+
+        List<String> rolled = Files.readAllLines(directory.resolve("suggestions.jsonl.1"));
+        List<String> lines = Files.readAllLines(directory.resolve("suggestions.jsonl"));
+        assertEquals(1, rolled.size());
+        assertTrue(rolled.get(0).contains("\"shortfall\":1"));
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"shortfall\":2"));
+    }
+
+    @Test
+    void configureTasks_EmitsOncePerInterval() {
+        properties.setInterval(Duration.ofMinutes(10));
+        ScheduledTaskRegistrar taskRegistrar = new ScheduledTaskRegistrar();
+
+        replenishmentTracker.configureTasks(taskRegistrar);
+
+        IntervalTask emission = taskRegistrar.getFixedRateTaskList().get(0);
+        assertEquals(600_000, emission.getInterval());
+        assertEquals(600_000, emission.getInitialDelay());
+    }
+}
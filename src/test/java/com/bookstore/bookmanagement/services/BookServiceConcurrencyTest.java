@@ -0,0 +1,145 @@
+package com.bookstore.bookmanagement.services;
+
+import com.bookstore.bookmanagement.dao.BookRepository;
+import com.bookstore.bookmanagement.entities.Book;
+import com.bookstore.bookmanagement.journal.InventoryJournal;
+import com.bookstore.bookmanagement.journal.JournalRecord;
+import com.bookstore.bookmanagement.models.BookDetail;
+import com.bookstore.bookmanagement.models.InventoryResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Orders and returns racing on the same books against the real database: row locks must keep
+ * every quantity change, in the database and in the journal.
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "bookmanagement.journal.directory=target/concurrency-test/journal-${random.uuid}"
+})
+class BookServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 25;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private InventoryJournal inventoryJournal;
+
+    @Test
+    void orderBooks_ConcurrentOrdersForSameBook_LoseNoUpdates() throws Exception {
+        Book book = bookService.createBook(new Book(0, "Contended", "Author", "Description", 10.0, 1_000));
+
+        List<Callable<Boolean>> orders = new ArrayList<>();
+        for (int i = 0; i < THREADS * ORDERS_PER_THREAD; i++) {
+            orders.add(() -> bookService.orderBooks(List.of(new BookDetail(book.getId(), 2))).isSuccessful());
+        }
+        int successful = runAll(orders);
+
+        assertEquals(THREADS * ORDERS_PER_THREAD, successful);
+        assertEquals(1_000 - 2 * successful, bookRepository.findById(book.getId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void orderBooks_OppositeLineOrder_DoesNotDeadlock() throws Exception {
+        Book first = bookService.createBook(new Book(0, "First", "Author", "Description", 10.0, 1_000));
+        Book second = bookService.createBook(new Book(0, "Second", "Author", "Description", 10.0, 1_000));
+
+        List<Callable<Boolean>> orders = new ArrayList<>();
+        for (int i = 0; i < THREADS * ORDERS_PER_THREAD; i++) {
+            List<BookDetail> lines = i % 2 == 0
+                    ? List.of(new BookDetail(first.getId(), 1), new BookDetail(second.getId(), 1))
+                    : List.of(new BookDetail(second.getId(), 1), new BookDetail(first.getId(), 1));
+            orders.add(() -> bookService.orderBooks(lines).isSuccessful());
+        }
+        int successful = runAll(orders);
+
+        assertEquals(THREADS * ORDERS_PER_THREAD, successful);
+        assertEquals(1_000 - successful, bookRepository.findById(first.getId()).orElseThrow().getQuantity());
+        assertEquals(1_000 - successful, bookRepository.findById(second.getId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void orderAndReturnBooks_Concurrently_JournalRecordsFollowCommitOrder() throws Exception {
+        Book book = bookService.createBook(new Book(0, "Journalled", "Author", "Description", 10.0, 1_000));
+
+        List<Callable<Boolean>> changes = new ArrayList<>();
+        for (int i = 0; i < THREADS * ORDERS_PER_THREAD; i++) {
+            List<BookDetail> lines = List.of(new BookDetail(book.getId(), 1 + i % 3));
+            changes.add(i % 2 == 0
+                    ? () -> bookService.orderBooks(lines).isSuccessful()
+                    : () -> bookService.returnBooks(lines).isSuccessful());
+        }
+        runAll(changes);
+
+        // each record must continue from the one before it, and the last one must match the table
+        List<JournalRecord> history = inventoryJournal.history(book.getId(), Instant.EPOCH, Instant.now());
+        assertEquals(THREADS * ORDERS_PER_THREAD, history.size());
+        int quantity = 1_000;
+        for (JournalRecord record : history) {
+            assertEquals(quantity + record.getDelta(), record.getResultingQuantity());
+            quantity = record.getResultingQuantity();
+        }
+        assertEquals(quantity, bookRepository.findById(book.getId()).orElseThrow().getQuantity());
+        assertEquals(quantity, inventoryJournal.stockAt(book.getId(), Instant.now()));
+    }
+
+    @Test
+    void orderAndUpdateBooks_Concurrently_JournalDeltasFollowLockedQuantities() throws Exception {
+        Book book = bookService.createBook(new Book(0, "Updated", "Author", "Description", 10.0, 1_000));
+
+        List<Callable<Boolean>> changes = new ArrayList<>();
+        for (int i = 0; i < THREADS * ORDERS_PER_THREAD; i++) {
+            if (i % 4 == 0) {
+                // a PUT replaces the whole book, quantity included
+                Book update = new Book(0, "Updated", "Author", "Description", 10.0, 500 + i);
+                changes.add(() -> bookService.updateBook(book.getId(), update) != null);
+            } else {
+                List<BookDetail> lines = List.of(new BookDetail(book.getId(), 1));
+                changes.add(() -> bookService.orderBooks(lines).isSuccessful());
+            }
+        }
+        assertEquals(THREADS * ORDERS_PER_THREAD, runAll(changes));
+
+        List<JournalRecord> history = inventoryJournal.history(book.getId(), Instant.EPOCH, Instant.now());
+        int quantity = 1_000;
+        for (JournalRecord record : history) {
+            assertEquals(quantity + record.getDelta(), record.getResultingQuantity());
+            quantity = record.getResultingQuantity();
+        }
+        assertEquals(quantity, bookRepository.findById(book.getId()).orElseThrow().getQuantity());
+    }
+
+    private static int runAll(List<Callable<Boolean>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            int successful = 0;
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                if (result.get()) {
+                    successful++;
+                }
+            }
+            return successful;
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+    }
+}
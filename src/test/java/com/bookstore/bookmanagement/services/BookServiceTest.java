@@ -1,13 +1,24 @@
 package com.bookstore.bookmanagement.services;
 
+import com.bookstore.bookmanagement.cache.BookResponseCache;
 import com.bookstore.bookmanagement.dao.BookRepository;
 import com.bookstore.bookmanagement.entities.Book;
+import com.bookstore.bookmanagement.journal.InventoryJournal;
+import com.bookstore.bookmanagement.membership.BookIdFilter;
+import com.bookstore.bookmanagement.models.BookAdjustment;
 import com.bookstore.bookmanagement.models.BookDetail;
+import com.bookstore.bookmanagement.models.InventoryLineStatus;
+import com.bookstore.bookmanagement.models.InventoryResult;
+import com.bookstore.bookmanagement.replenishment.ReplenishmentTracker;
+import com.bookstore.bookmanagement.telemetry.HotBookTracker;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -23,6 +34,24 @@ class BookServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private InventoryJournal inventoryJournal;
+
+    @Mock
+    private BookResponseCache bookResponseCache;
+
+    @Mock
+    private BookIdFilter bookIdFilter;
+
+    @Mock
+    private HotBookTracker hotBookTracker;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private ReplenishmentTracker replenishmentTracker;
+
     @InjectMocks
     private BookService bookService;
 
@@ -65,6 +94,7 @@ class BookServiceTest {
         assertEquals("book title 1", result.getTitle());
 
         verify(bookRepository, times(1)).findById(bookId);
+        verify(hotBookTracker, times(1)).recordRead(bookId);
     }
 
     @Test
@@ -80,6 +110,19 @@ class BookServiceTest {
         verify(bookRepository, times(1)).findById(bookId);
     }
 
+    @Test
+    void getBookById_DefinitelyAbsentBookId_ShouldReturnNullWithoutQuery() {
+        int bookId = 100;
+
+        when(bookIdFilter.isDefinitelyAbsent(bookId)).thenReturn(true);
+
+        Book result = bookService.getBookById(bookId);
+
+        assertNull(result);
+
+        verify(bookRepository, times(0)).findById(anyInt());
+    }
+
     @Test
     void createBook_ShouldReturnCreatedBook() {
         Book book = new Book(1, "book title 1", "book author 1",
@@ -94,6 +137,7 @@ class BookServiceTest {
         assertEquals("book title 1", result.getTitle());
 
         verify(bookRepository, times(1)).save(book);
+        verify(bookIdFilter, times(1)).add(1);
     }
 
     @Test
@@ -104,7 +148,7 @@ class BookServiceTest {
         Book updatedBook = new Book(1, "updated book title 1", "book author 1",
                 "book description 1", 100, 15);
 
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(existingBook));
+        when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.of(existingBook));
         when(bookRepository.save(any(Book.class))).thenReturn(updatedBook);
 
         Book result = bookService.updateBook(bookId, updatedBook);
@@ -113,8 +157,10 @@ class BookServiceTest {
         assertEquals(bookId, result.getId());
         assertEquals("updated book title 1", result.getTitle());
 
-        verify(bookRepository, times(1)).findById(bookId);
+        verify(bookRepository, times(1)).findByIdForUpdate(bookId);
         verify(bookRepository, times(1)).save(updatedBook);
+        verify(inventoryJournal, times(1)).append(bookId, 5, 15);
+        verify(bookResponseCache, times(1)).evict(bookId);
     }
 
     @Test
@@ -123,16 +169,122 @@ class BookServiceTest {
         Book updatedBook = new Book(1, "updated book title 1", "book author 1",
                 "book description 1", 100, 10);
 
-        when(bookRepository.findById(bookId)).thenReturn(Optional.empty());
+        when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.empty());
 
         Book result = bookService.updateBook(bookId, updatedBook);
 
         assertNull(result);
 
-        verify(bookRepository, times(1)).findById(bookId);
+        verify(bookRepository, times(1)).findByIdForUpdate(bookId);
         verify(bookRepository, times(0)).save(updatedBook);
     }
 
+    @Test
+    void patchBook_PriceOnly_ShouldChangeOnlyPrice() throws Exception {
+        int bookId = 1;
+        Book existingBook = new Book(1, "book title 1", "book author 1",
+                "book description 1", 100, 10);
+        JsonNode patch = objectMapper.readTree("{\"price\": 80}");
+
+        when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.of(existingBook));
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Book result = bookService.patchBook(bookId, patch);
+
+        assertEquals(80, result.getPrice());
+        assertEquals("book title 1", result.getTitle());
+        assertEquals("book description 1", result.getDescription());
+        assertEquals(10, result.getQuantity());
+
+        verify(bookResponseCache, times(1)).evict(bookId);
+        verify(inventoryJournal, times(0)).append(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void patchBook_QuantityAndNullDescription_ShouldJournalAndClearDescription() throws Exception {
+        int bookId = 1;
+        Book existingBook = new Book(1, "book title 1", "book author 1",
+                "book description 1", 100, 10);
+        JsonNode patch = objectMapper.readTree("{\"quantity\": 4, \"description\": null}");
+
+        when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.of(existingBook));
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Book result = bookService.patchBook(bookId, patch);
+
+        assertEquals(4, result.getQuantity());
+        assertNull(result.getDescription());
+
+        verify(inventoryJournal, times(1)).append(bookId, -6, 4);
+    }
+
+    @Test
+    void patchBook_RemovesRequiredField_ShouldThrowWithoutLoading() throws Exception {
+        JsonNode patch = objectMapper.readTree("{\"title\": null}");
+
+        assertThrows(IllegalArgumentException.class, () -> bookService.patchBook(1, patch));
+
+        verify(bookRepository, times(0)).findByIdForUpdate(anyInt());
+    }
+
+    @Test
+    void patchBook_NonExistingBookId_ShouldReturnNull() throws Exception {
+        JsonNode patch = objectMapper.readTree("{\"price\": 80}");
+
+        when(bookRepository.findByIdForUpdate(100)).thenReturn(Optional.empty());
+
+        assertNull(bookService.patchBook(100, patch));
+
+        verify(bookRepository, times(0)).save(any(Book.class));
+    }
+
+    @Test
+    void adjustBooks_ValidAdjustments_ShouldUpdatePricesAndStock() {
+        List<BookAdjustment> adjustments = new ArrayList<>();
+        adjustments.add(new BookAdjustment(1, 90.0, null));
+        adjustments.add(new BookAdjustment(2, null, -2));
+
+        Book existingBook1 = new Book(1, "book title 1", "book author 1",
+                "book description 1", 100, 10);
+        Book existingBook2 = new Book(2, "book title 2", "book author 2",
+                "book description 2", 150, 5);
+
+        when(bookRepository.findByIdForUpdate(1)).thenReturn(Optional.of(existingBook1));
+        when(bookRepository.findByIdForUpdate(2)).thenReturn(Optional.of(existingBook2));
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        InventoryResult result = bookService.adjustBooks(adjustments);
+
+        assertTrue(result.isSuccessful());
+        assertEquals(90.0, existingBook1.getPrice());
+        assertEquals(10, existingBook1.getQuantity());
+        assertEquals(3, existingBook2.getQuantity());
+
+        verify(inventoryJournal, times(1)).append(2, -2, 3);
+        verify(inventoryJournal, times(0)).append(eq(1), anyInt(), anyInt());
+        verify(bookResponseCache, times(1)).evict(1);
+        verify(bookResponseCache, times(1)).evict(2);
+    }
+
+    @Test
+    void adjustBooks_StockWouldBecomeNegative_ShouldRejectWithoutUpdating() {
+        List<BookAdjustment> adjustments = new ArrayList<>();
+        adjustments.add(new BookAdjustment(1, 90.0, -11));
+
+        Book existingBook1 = new Book(1, "book title 1", "book author 1",
+                "book description 1", 100, 10);
+
+        when(bookRepository.findByIdForUpdate(1)).thenReturn(Optional.of(existingBook1));
+
+        InventoryResult result = bookService.adjustBooks(adjustments);
+
+        assertFalse(result.isSuccessful());
+        assertEquals(InventoryLineStatus.INSUFFICIENT_STOCK, result.getLines().get(0).getStatus());
+        assertEquals(100, existingBook1.getPrice());
+
+        verify(bookRepository, times(0)).save(any(Book.class));
+    }
+
     @Test
     void returnBooks_ValidBookDetailsList_ShouldUpdateInventory() {
         List<BookDetail> bookDetailList = new ArrayList<>();
@@ -144,28 +296,41 @@ class BookServiceTest {
         Book existingBook2 = new Book(2, "book title 2", "book author 2",
                 "book description 2", 150, 5);
 
-        when(bookRepository.findById(1)).thenReturn(Optional.of(existingBook1));
-        when(bookRepository.findById(2)).thenReturn(Optional.of(existingBook2));
+        when(bookRepository.findByIdForUpdate(1)).thenReturn(Optional.of(existingBook1));
+        when(bookRepository.findByIdForUpdate(2)).thenReturn(Optional.of(existingBook2));
 
-        bookService.returnBooks(bookDetailList);
+        InventoryResult result = bookService.returnBooks(bookDetailList);
 
+        assertTrue(result.isSuccessful());
         assertEquals(15, existingBook1.getQuantity());
         assertEquals(8, existingBook2.getQuantity());
 
         verify(bookRepository, times(2)).save(any(Book.class));
+        verify(inventoryJournal, times(1)).append(1, 5, 15);
+        verify(inventoryJournal, times(1)).append(2, 3, 8);
     }
 
     @Test
-    void returnBooks_InvalidBookDetailsList_ShouldThrowException() {
+    void returnBooks_UnknownBookId_ShouldRejectWithoutUpdatingInventory() {
         List<BookDetail> bookDetailList = new ArrayList<>();
         bookDetailList.add(new BookDetail(1, 5));
         bookDetailList.add(new BookDetail(2, 3));
 
-        when(bookRepository.findById(1)).thenReturn(Optional.empty());
+        Book existingBook2 = new Book(2, "book title 2", "book author 2",
+                "book description 2", 150, 5);
+
+        when(bookRepository.findByIdForUpdate(1)).thenReturn(Optional.empty());
+        when(bookRepository.findByIdForUpdate(2)).thenReturn(Optional.of(existingBook2));
+
+        InventoryResult result = bookService.returnBooks(bookDetailList);
 
-        assertThrows(IllegalArgumentException.class, () -> bookService.returnBooks(bookDetailList));
+        assertFalse(result.isSuccessful());
+        assertTrue(result.hasUnknownBooks());
+        assertEquals(InventoryLineStatus.UNKNOWN_BOOK, result.getLines().get(0).getStatus());
+        assertEquals(InventoryLineStatus.OK, result.getLines().get(1).getStatus());
+        assertEquals(5, existingBook2.getQuantity());
 
-        verify(bookRepository, times(1)).findById(anyInt());
+        verify(bookRepository, times(2)).findByIdForUpdate(anyInt());
         verify(bookRepository, times(0)).save(any(Book.class));
     }
 
@@ -180,31 +345,81 @@ class BookServiceTest {
         Book existingBook2 = new Book(2, "book title 2", "book author 2",
                 "book description 2", 150, 5);
 
-        when(bookRepository.findById(1)).thenReturn(Optional.of(existingBook1));
-        when(bookRepository.findById(2)).thenReturn(Optional.of(existingBook2));
+        when(bookRepository.findByIdForUpdate(1)).thenReturn(Optional.of(existingBook1));
+        when(bookRepository.findByIdForUpdate(2)).thenReturn(Optional.of(existingBook2));
 
-        List<Book> orderedBooks = bookService.orderBooks(bookDetailList);
+        InventoryResult result = bookService.orderBooks(bookDetailList);
 
+        assertTrue(result.isSuccessful());
         assertEquals(5, existingBook1.getQuantity());
         assertEquals(2, existingBook2.getQuantity());
-        assertEquals(2, orderedBooks.size());
+        assertEquals(2, result.getBooks().size());
 
         verify(bookRepository, times(2)).save(any(Book.class));
+        verify(inventoryJournal, times(1)).append(1, -5, 5);
+        verify(hotBookTracker, times(1)).recordWrite(eq(1), anyLong());
+        verify(inventoryJournal, times(1)).append(2, -3, 2);
+        verify(replenishmentTracker, times(1)).update(existingBook1);
+        verify(replenishmentTracker, times(1)).update(existingBook2);
     }
 
     @Test
-    void orderBooks_BookNotInStock_ShouldThrowException() {
+    void orderBooks_BookNotInStock_ShouldRejectWithInsufficientStock() {
         List<BookDetail> bookDetailList = new ArrayList<>();
         bookDetailList.add(new BookDetail(1, 15));
 
         Book existingBook1 = new Book(1, "book title 1", "book author 1",
                 "book description 1", 100, 10);
 
-        when(bookRepository.findById(1)).thenReturn(Optional.of(existingBook1));
+        when(bookRepository.findByIdForUpdate(1)).thenReturn(Optional.of(existingBook1));
+
+        InventoryResult result = bookService.orderBooks(bookDetailList);
+
+        assertFalse(result.isSuccessful());
+        assertFalse(result.hasUnknownBooks());
+        assertEquals(InventoryLineStatus.INSUFFICIENT_STOCK, result.getLines().get(0).getStatus());
+        assertEquals(10, result.getLines().get(0).getAvailableQuantity());
+        assertTrue(result.getBooks().isEmpty());
+
+        verify(bookRepository, times(1)).findByIdForUpdate(anyInt());
+        verify(bookRepository, times(0)).save(any(Book.class));
+    }
+
+    @Test
+    void orderBooks_SameBookOnSeveralLines_ShouldCheckCombinedQuantity() {
+        List<BookDetail> bookDetailList = new ArrayList<>();
+        bookDetailList.add(new BookDetail(1, 6));
+        bookDetailList.add(new BookDetail(1, 6));
+
+        Book existingBook1 = new Book(1, "book title 1", "book author 1",
+                "book description 1", 100, 10);
+
+        when(bookRepository.findByIdForUpdate(1)).thenReturn(Optional.of(existingBook1));
+
+        InventoryResult result = bookService.orderBooks(bookDetailList);
+
+        assertFalse(result.isSuccessful());
+        assertEquals(InventoryLineStatus.OK, result.getLines().get(0).getStatus());
+        assertEquals(InventoryLineStatus.INSUFFICIENT_STOCK, result.getLines().get(1).getStatus());
+        assertEquals(10, existingBook1.getQuantity());
+
+        verify(bookRepository, times(1)).findByIdForUpdate(1);
+        verify(bookRepository, times(0)).save(any(Book.class));
+    }
+
+    @Test
+    void orderBooks_DefinitelyAbsentBookId_ShouldRejectWithoutQuery() {
+        List<BookDetail> bookDetailList = new ArrayList<>();
+        bookDetailList.add(new BookDetail(100, 1));
+
+        when(bookIdFilter.isDefinitelyAbsent(100)).thenReturn(true);
+
+        InventoryResult result = bookService.orderBooks(bookDetailList);
 
-        assertThrows(IllegalArgumentException.class, () -> bookService.orderBooks(bookDetailList));
+        assertFalse(result.isSuccessful());
+        assertEquals(InventoryLineStatus.UNKNOWN_BOOK, result.getLines().get(0).getStatus());
 
-        verify(bookRepository, times(1)).findById(anyInt());
+        verify(bookRepository, times(0)).findByIdForUpdate(anyInt());
         verify(bookRepository, times(0)).save(any(Book.class));
     }
 
@@ -222,6 +437,8 @@ class BookServiceTest {
 
         verify(bookRepository, times(1)).findById(bookId);
         verify(bookRepository, times(1)).delete(existingBook);
+        verify(bookResponseCache, times(1)).evict(bookId);
+        verify(bookIdFilter, times(1)).remove(bookId);
     }
 
     @Test
@@ -0,0 +1,38 @@
+package com.bookstore.bookmanagement.services;
+
+import com.bookstore.bookmanagement.cache.BookResponseCache;
+import com.bookstore.bookmanagement.dao.BookRepository;
+import com.bookstore.bookmanagement.journal.InventoryJournal;
+import com.bookstore.bookmanagement.membership.BookIdFilter;
+import com.bookstore.bookmanagement.replenishment.ReplenishmentTracker;
+import com.bookstore.bookmanagement.telemetry.HotBookTracker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Builds a {@link BookService} outside Spring for tests and benchmarks that need a real
+ * repository and, optionally, a real {@link BookIdFilter}. Everything else is a mock.
+ */
+public final class BookServices {
+
+    private BookServices() {
+    }
+
+    public static BookService bookService(BookRepository bookRepository) {
+        return bookService(bookRepository, mock(BookIdFilter.class));
+    }
+
+    public static BookService bookService(BookRepository bookRepository, BookIdFilter bookIdFilter) {
+        BookService bookService = new BookService();
+        ReflectionTestUtils.setField(bookService, "bookRepository", bookRepository);
+        ReflectionTestUtils.setField(bookService, "bookIdFilter", bookIdFilter);
+        ReflectionTestUtils.setField(bookService, "inventoryJournal", mock(InventoryJournal.class));
+        ReflectionTestUtils.setField(bookService, "bookResponseCache", mock(BookResponseCache.class));
+        ReflectionTestUtils.setField(bookService, "hotBookTracker", mock(HotBookTracker.class));
+        ReflectionTestUtils.setField(bookService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(bookService, "replenishmentTracker", mock(ReplenishmentTracker.class));
+        return bookService;
+    }
+}
@@ -0,0 +1,85 @@
+package com.bookstore.bookmanagement.telemetry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotBookTrackerTest {
+
+    private HotBookProperties properties;
+
+    private HotBookTracker hotBookTracker;
+
+    @BeforeEach
+    void setUp() {
+        properties = new HotBookProperties();
+        properties.setTopK(5);
+        hotBookTracker = new HotBookTracker(properties);
+        hotBookTracker.init();
+    }
+
+    @Test
+    void currentHotBooks_ReturnsHeaviestHittersFirst() {
+        // long tail of 1,000 books read once each
+        for (int id = 1000; id < 2000; id++) {
+            hotBookTracker.recordRead(id);
+        }
+        for (int i = 0; i < 500; i++) {
+            hotBookTracker.recordRead(1);
+        }
+        for (int i = 0; i < 300; i++) {
+            hotBookTracker.recordWrite(2, 1_000);
+        }
+        for (int i = 0; i < 100; i++) {
+            hotBookTracker.recordRead(3);
+        }
+
+        List<HotBook> hotBooks = hotBookTracker.currentHotBooks(3);
+
+        assertEquals(3, hotBooks.size());
+        assertEquals(1, hotBooks.get(0).getBookId());
+        assertEquals(2, hotBooks.get(1).getBookId());
+        assertEquals(3, hotBooks.get(2).getBookId());
+        assertTrue(hotBooks.get(0).getReads() >= 500);
+        assertTrue(hotBooks.get(1).getWrites() >= 300);
+        assertTrue(hotBooks.get(1).getAverageWriteMicros() >= 1.0);
+    }
+
+    @Test
+    void rotate_MovesCurrentWindowToPrevious() {
+        hotBookTracker.recordRead(7);
+
+        hotBookTracker.rotate();
+
+        assertTrue(hotBookTracker.currentHotBooks(10).isEmpty());
+        assertEquals(7, hotBookTracker.previousHotBooks(10).get(0).getBookId());
+    }
+
+    @Test
+    void hotBooks_NegativeLimit_ReturnsNothing() {
+        hotBookTracker.recordRead(7);
+        hotBookTracker.rotate();
+        hotBookTracker.recordRead(8);
+
+        assertTrue(hotBookTracker.currentHotBooks(-1).isEmpty());
+        assertTrue(hotBookTracker.previousHotBooks(-1).isEmpty());
+    }
+
+    @Test
+    void configureTasks_RotatesOncePerWindow() {
+        properties.setWindow(Duration.ofMinutes(10));
+        ScheduledTaskRegistrar taskRegistrar = new ScheduledTaskRegistrar();
+
+        hotBookTracker.configureTasks(taskRegistrar);
+
+        IntervalTask rotation = taskRegistrar.getFixedRateTaskList().get(0);
+        assertEquals(600_000, rotation.getInterval());
+        assertEquals(600_000, rotation.getInitialDelay());
+    }
+}
@@ -0,0 +1,49 @@
+package com.bookstore.bookmanagement.telemetry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotBooksEndpointTest {
+
+    private HotBookTracker hotBookTracker;
+
+    private HotBooksEndpoint hotBooksEndpoint;
+
+    @BeforeEach
+    void setUp() {
+        HotBookProperties properties = new HotBookProperties();
+        hotBookTracker = new HotBookTracker(properties);
+        hotBookTracker.init();
+
+        hotBooksEndpoint = new HotBooksEndpoint();
+        ReflectionTestUtils.setField(hotBooksEndpoint, "hotBookTracker", hotBookTracker);
+        ReflectionTestUtils.setField(hotBooksEndpoint, "properties", properties);
+    }
+
+    @Test
+    void hotBooks_NegativeLimit_ReturnsEmptyLists() {
+        hotBookTracker.recordRead(1);
+
+        Map<String, Object> report = hotBooksEndpoint.hotBooks(-1);
+
+        assertEquals(List.of(), report.get("current"));
+        assertEquals(List.of(), report.get("previous"));
+    }
+
+    @Test
+    void hotBooks_NoLimit_ReturnsDefaultNumberOfBooks() {
+        for (int id = 1; id <= 20; id++) {
+            hotBookTracker.recordRead(id);
+        }
+
+        Map<String, Object> report = hotBooksEndpoint.hotBooks(null);
+
+        assertEquals(10, ((List<?>) report.get("current")).size());
+    }
+}
@@ -0,0 +1,60 @@
+package com.bookstore.bookmanagement.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountingBloomFilterTest {
+
+    @Test
+    void mightContain_AddedKeys_ReturnsTrue() {
+        CountingBloomFilter filter = CountingBloomFilter.create(10_000, 0.01);
+
+        for (int id = 1; id <= 10_000; id++) {
+            filter.add(id);
+        }
+
+        for (int id = 1; id <= 10_000; id++) {
+            assertTrue(filter.mightContain(id));
+        }
+    }
+
+    @Test
+    void mightContain_UnknownKeys_StaysNearConfiguredFalsePositiveRate() {
+        CountingBloomFilter filter = CountingBloomFilter.create(10_000, 0.01);
+        for (int id = 1; id <= 10_000; id++) {
+            filter.add(id);
+        }
+
+        int falsePositives = 0;
+        for (int id = 1_000_001; id <= 1_100_000; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+
+        // 1% of 100,000 lookups, with generous headroom
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(10_000), 0.002);
+    }
+
+    @Test
+    void remove_AddedKey_NoLongerContained() {
+        CountingBloomFilter filter = CountingBloomFilter.create(1_000, 0.001);
+        filter.add(42);
+        filter.add(43);
+
+        filter.remove(42);
+
+        assertFalse(filter.mightContain(42));
+        assertTrue(filter.mightContain(43));
+    }
+
+    @Test
+    void create_SizesForFalsePositiveRate() {
+        CountingBloomFilter filter = CountingBloomFilter.create(1_000_000, 0.01);
+
+        assertEquals(7, filter.getHashCount());
+        assertTrue(filter.getMemoryBytes() < 5 * 1024 * 1024);
+    }
+}